@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# smartgym_loadtest.sh
+# Prueba de carga en lazo abierto: tráfico mixto (torniquete, reservas, progreso, rutinas) en una
+# rampa de ritmos hasta la saturación. Percentiles por endpoint y capacidad sostenible en
+# target/load-result.json.
+# Requisitos: Java 17+, curl.
+# Uso:
+#   ./smartgym_loadtest.sh                                   # arranca una instancia limpia en :18090
+#   ./smartgym_loadtest.sh --rates=50,100,200 --step-seconds=60
+#   BASE_URL=http://host:8080 ./smartgym_loadtest.sh --seed=false   # instancia ya arrancada
+# Variables: BASE_URL, PORT (18090), APP_JAVA_OPTS ("-Xmx1g"), APP_ARGS (propiedades extra de Spring).
+# Opciones de la prueba: ver la Javadoc de com.smartgym.load.LoadRunner.
+
+set -o errexit
+set -o nounset
+set -o pipefail
+
+cd "$(dirname "$0")"
+
+BASE_URL="${BASE_URL:-}"
+PORT="${PORT:-18090}"
+APP_JAVA_OPTS="${APP_JAVA_OPTS:--Xmx1g}"
+APP_ARGS="${APP_ARGS:-}"
+
+if [[ -z "$BASE_URL" ]]; then
+  JAR=$(ls target/smartgym-*.jar 2>/dev/null | grep -v '\.original$' | head -1 || true)
+  if [[ -z "$JAR" ]]; then
+    ./mvnw -q -B -DskipTests package
+    JAR=$(ls target/smartgym-*.jar | grep -v '\.original$' | head -1)
+  fi
+  # Base en memoria: cada ejecución parte del mismo estado (sin data.sql, la siembra va por la API)
+  # shellcheck disable=SC2086
+  java $APP_JAVA_OPTS -jar "$JAR" \
+    --server.port="$PORT" \
+    --spring.datasource.url="jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1" \
+    --spring.sql.init.mode=never \
+    --logging.level.root=WARN \
+    $APP_ARGS > target/loadtest-app.log 2>&1 &
+  APP_PID=$!
+  trap 'kill "$APP_PID" 2>/dev/null || true' EXIT
+  BASE_URL="http://localhost:$PORT"
+  for _ in $(seq 1 90); do
+    if curl -fs "$BASE_URL/api/v1/health" > /dev/null; then break; fi
+    if ! kill -0 "$APP_PID" 2>/dev/null; then
+      echo "The application exited during startup; see target/loadtest-app.log"; exit 1
+    fi
+    sleep 1
+  done
+  curl -fs "$BASE_URL/api/v1/health" > /dev/null || { echo "The application did not start in 90 s"; exit 1; }
+fi
+
+./mvnw -q -B -Pload verify -Dload.args="--base-url=$BASE_URL $*"
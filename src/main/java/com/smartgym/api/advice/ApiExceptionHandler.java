@@ -1,6 +1,7 @@
 package com.smartgym.api.advice;
 
 import com.smartgym.api.common.ApiResponse;
+import com.smartgym.application.BackpressureException;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.Ordered;
@@ -142,6 +143,15 @@ public class ApiExceptionHandler {
         );
     }
 
+    @ExceptionHandler(BackpressureException.class)
+    public ResponseEntity<ApiResponse<?>> handleBackpressure(BackpressureException ex,
+                                                             HttpServletRequest req) {
+        return ResponseEntity.status(503).header("Retry-After", "1").body(
+                ApiResponse.fail("SERVICE_UNAVAILABLE", ex.getMessage(), null,
+                        Instant.now().toString(), req.getRequestURI())
+        );
+    }
+
     @ExceptionHandler(NoHandlerFoundException.class)
     public ResponseEntity<ApiResponse<?>> handleNotFound(NoHandlerFoundException ex,
                                                          HttpServletRequest req) {
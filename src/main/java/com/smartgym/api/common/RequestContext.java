@@ -1,5 +1,10 @@
 package com.smartgym.api.common;
 
+/**
+ * Id de la petición en curso. Lo fija y lo limpia {@link RequestIdFilter} en el mismo hilo, así
+ * que vale igual con hilos de plataforma que virtuales (un hilo virtual por petición, sin
+ * reutilización). No se propaga a tareas asíncronas: quien lo necesite debe copiarlo al encolar.
+ */
 public final class RequestContext {
     private static final ThreadLocal<String> REQUEST_ID = new ThreadLocal<>();
 
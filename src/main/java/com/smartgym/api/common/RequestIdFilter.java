@@ -1,5 +1,7 @@
 package com.smartgym.api.common;
 
+import com.smartgym.metrics.SlowRequestLog;
+import com.smartgym.metrics.SqlTrace;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,16 +14,33 @@ import java.util.UUID;
 
 @Component
 public class RequestIdFilter extends OncePerRequestFilter {
+
+    private final SlowRequestLog slowRequests;
+
+    public RequestIdFilter(SlowRequestLog slowRequests) {
+        this.slowRequests = slowRequests;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String id = UUID.randomUUID().toString();
         RequestContext.setRequestId(id);
         response.setHeader("X-Request-Id", id);
+        // El id de la petición es también la clave de su traza SQL
+        SqlTrace trace = SqlTrace.start(id);
+        boolean completed = false;
         try {
             filterChain.doFilter(request, response);
+            completed = true;
         } finally {
-            RequestContext.clear();
+            // También las peticiones que lanzan: son justo las que interesa ver
+            try {
+                slowRequests.finish(trace, request, completed ? response.getStatus() : 500, !completed);
+            } finally {
+                SqlTrace.end();
+                RequestContext.clear();
+            }
         }
     }
 }
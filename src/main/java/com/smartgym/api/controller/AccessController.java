@@ -2,7 +2,10 @@ package com.smartgym.api.controller;
 
 import com.smartgym.api.common.ApiResponse;
 import com.smartgym.api.dto.AccessRequest;
+import com.smartgym.api.dto.VisitStatsResponse;
 import com.smartgym.application.GymExtensions;
+import com.smartgym.application.VisitSessionizer;
+import com.smartgym.application.VisitSessionizer.VisitStats;
 import com.smartgym.domain.AttendanceRecord;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.*;
@@ -21,8 +24,12 @@ import java.util.List;
 public class AccessController {
 
     private final GymExtensions ext;
+    private final VisitSessionizer visits;
 
-    public AccessController(GymExtensions ext) { this.ext = ext; }
+    public AccessController(GymExtensions ext, VisitSessionizer visits) {
+        this.ext = ext;
+        this.visits = visits;
+    }
 
     @Operation(summary = "Register access by DNI")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -54,4 +61,24 @@ public class AccessController {
                 ApiResponse.ok(list, "Attendance records retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
         );
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Visit statistics by DNI (paired entry/exit swipes)")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", description = "DNI not linked",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/attendance/{dni}/stats")
+    public ResponseEntity<ApiResponse<VisitStatsResponse>> stats(@PathVariable String dni, HttpServletRequest http) {
+        String email = ext.emailByDni(dni).orElseThrow(() -> new IllegalArgumentException("DNI not linked"));
+        VisitStats s = visits.stats(email).orElseGet(() -> VisitStats.empty(email));
+        var body = new VisitStatsResponse(s.email(), s.visits(), s.averageVisitSeconds(), s.unmatchedEntries(),
+                str(s.lastVisitStart()), str(s.lastVisitEnd()), str(s.openEntryAt()));
+        return ResponseEntity.ok(
+                ApiResponse.ok(body, "Visit statistics retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    private static String str(Object value) { return value == null ? null : value.toString(); }
+}
@@ -0,0 +1,64 @@
+package com.smartgym.api.controller;
+
+import com.smartgym.api.common.ApiResponse;
+import com.smartgym.metrics.SlowRequestLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.*;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@io.swagger.v3.oas.annotations.tags.Tag(name = "Admin")
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private final SlowRequestLog slowRequests;
+
+    public AdminController(SlowRequestLog slowRequests) { this.slowRequests = slowRequests; }
+
+    @Operation(summary = "Recent slow or over-budget requests with their SQL breakdown (newest first)",
+            description = "Each entry is keyed by the X-Request-Id returned to the client.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "Invalid limit",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/slow-requests")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> slowRequests(@RequestParam(defaultValue = "50") int limit,
+                                                                         HttpServletRequest http) {
+        if (limit < 1 || limit > slowRequests.capacity()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + slowRequests.capacity() + ".");
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("slowThresholdMs", slowRequests.slowThresholdMs());
+        body.put("onBudgetExceeded", slowRequests.onBudgetExceeded());
+        body.put("capacity", slowRequests.capacity());
+        body.put("entries", slowRequests.recent(limit));
+        return ResponseEntity.ok(
+                ApiResponse.ok(body, "Slow requests retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    @Operation(summary = "SQL breakdown of one slow or over-budget request by X-Request-Id")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "Not recorded (fast and within budget, or already overwritten)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/slow-requests/{requestId}")
+    public ResponseEntity<ApiResponse<SlowRequestLog.Entry>> slowRequest(@PathVariable String requestId,
+                                                                        HttpServletRequest http) {
+        var entry = slowRequests.find(requestId)
+                .orElseThrow(() -> new IllegalArgumentException("No slow request recorded with id " + requestId));
+        return ResponseEntity.ok(
+                ApiResponse.ok(entry, "Slow request retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+}
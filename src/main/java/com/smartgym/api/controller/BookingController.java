@@ -1,22 +1,33 @@
 package com.smartgym.api.controller;
 
 import com.smartgym.api.common.ApiResponse;
+import com.smartgym.api.dto.BookingBatchRequest;
+import com.smartgym.api.dto.BookingBatchResponse;
 import com.smartgym.api.dto.BookingCreateRequest;
 import com.smartgym.api.dto.BookingResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartgym.model.Booking;
+import com.smartgym.repository.BookingView;
+import com.smartgym.service.BookingSlotOutcome;
 import com.smartgym.service.SmartGymService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.*;
 
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.EnumSet;
 import java.util.List;
 
 @io.swagger.v3.oas.annotations.tags.Tag(name = "Bookings")
@@ -25,9 +36,17 @@ import java.util.List;
 @Validated
 public class BookingController {
 
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final SmartGymService service;
+    private final ObjectMapper mapper;
 
-    public BookingController(SmartGymService service) { this.service = service; }
+    public BookingController(SmartGymService service, ObjectMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
 
     @Operation(summary = "Create a booking")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -46,31 +65,87 @@ public class BookingController {
                 ? service.createBookingToday(req.customerEmail(), req.trainerEmail(), time)
                 : service.createBookingToday(req.customerEmail(), req.trainerEmail(), time, req.note());
 
-        var resp = new BookingResponse(
-                b.getId(),
-                b.getCustomerEmail(),
-                b.getTrainerEmail(),
-                b.getSchedule().getDate().toString(),
-                b.getSchedule().getTime().toString(),
-                b.getNote()
-        );
+        // Entidad recién creada: cliente y entrenador ya están cargados, sin SQL extra
+        var resp = toResponse(b);
         return ResponseEntity.status(201).body(
                 ApiResponse.ok(resp, "Booking created successfully", java.time.Instant.now().toString(), http.getRequestURI())
         );
     }
 
-    @Operation(summary = "List all bookings")
+    @Operation(summary = "Create recurring weekly bookings in one transaction")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "201", description = "At least one slot booked (per-slot results)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "No slot booked (per-slot results)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "Unprocessable (invalid domain state)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @PostMapping("/bookings/batch")
+    public ResponseEntity<ApiResponse<BookingBatchResponse>> createBatch(@Valid @RequestBody BookingBatchRequest req,
+                                                                         HttpServletRequest http) {
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : req.daysOfWeek()) {
+            days.add(DayOfWeek.valueOf(day.trim().toUpperCase())); // puede lanzar IllegalArgumentException -> 422
+        }
+        var note = (req.note() == null || req.note().isBlank()) ? null : req.note();
+        var outcomes = service.createRecurringBookings(req.customerEmail(), req.trainerEmail(),
+                req.startDate(), req.endDate(), days, LocalTime.parse(req.time()), note);
+
+        var results = outcomes.stream()
+                .map(o -> new BookingBatchResponse.SlotResult(o.date().toString(), o.time().toString(),
+                        o.status().name(), o.bookingId(), o.reason()))
+                .toList();
+        int created = count(outcomes, BookingSlotOutcome.Status.CREATED);
+        var resp = new BookingBatchResponse(results, created,
+                count(outcomes, BookingSlotOutcome.Status.CONFLICT), count(outcomes, BookingSlotOutcome.Status.REJECTED));
+        return ResponseEntity.status(created > 0 ? 201 : 200).body(
+                ApiResponse.ok(resp, "Batch booking processed", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    @Operation(summary = "List bookings (keyset pagination by id)",
+            description = "Returns up to `limit` bookings with id > `after_id`, ordered by id. "
+                    + "When more rows may follow, the `X-Next-After-Id` header carries the cursor for the next page.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200", description = "OK",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
     @GetMapping("/bookings")
-    public ResponseEntity<ApiResponse<List<BookingResponse>>> listAll(HttpServletRequest http) {
-        var list = service.listBookings().stream().map(this::toResponse).toList();
-        return ResponseEntity.ok(
-                ApiResponse.ok(list, "All bookings retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+    public ResponseEntity<ApiResponse<List<BookingResponse>>> listAll(
+            @RequestParam(name = "after_id", defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            HttpServletRequest http) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        var list = service.listBookings(afterId, limit).stream().map(this::toResponse).toList();
+        var response = ResponseEntity.ok();
+        if (list.size() == limit) {
+            response.header("X-Next-After-Id", String.valueOf(list.get(list.size() - 1).id()));
+        }
+        return response.body(
+                ApiResponse.ok(list, "Bookings page retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
         );
     }
 
+    @Operation(summary = "Stream all bookings as NDJSON (one booking per line, constant memory)")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BookingResponse.class)))
+    @GetMapping(value = "/bookings/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = out -> service.streamBookings(v -> {
+            try {
+                out.write(mapper.writeValueAsBytes(toResponse(v)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     @Operation(summary = "List trainer bookings by date")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200", description = "OK",
@@ -86,6 +161,40 @@ public class BookingController {
         );
     }
 
+    @Operation(summary = "List trainer bookings for the week (Mon–Sun) containing a date")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/trainers/{email}/bookings/week")
+    public ResponseEntity<ApiResponse<List<BookingResponse>>> listByTrainerAndWeek(
+            @PathVariable String email,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            HttpServletRequest http) {
+        var list = service.listTrainerWeek(email, date).stream().map(this::toResponse).toList();
+        return ResponseEntity.ok(
+                ApiResponse.ok(list, "Trainer bookings for the week retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    @Operation(summary = "List trainer bookings in a date range (inclusive, ordered by date and time)")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "Invalid range",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/trainers/{email}/bookings/range")
+    public ResponseEntity<ApiResponse<List<BookingResponse>>> listByTrainerAndRange(
+            @PathVariable String email,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest http) {
+        var list = service.listTrainerBookings(email, from, to).stream().map(this::toResponse).toList();
+        return ResponseEntity.ok(
+                ApiResponse.ok(list, "Trainer bookings for the given range retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
     @Operation(summary = "Cancel booking by id")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "204", description = "No content")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -97,6 +206,15 @@ public class BookingController {
                 return ResponseEntity.noContent().build(); // 204 sin contenido según convención REST
         }
 
+        private static int count(List<BookingSlotOutcome> outcomes, BookingSlotOutcome.Status status) {
+                return (int) outcomes.stream().filter(o -> o.status() == status).count();
+        }
+
+        private BookingResponse toResponse(BookingView v) {
+                return new BookingResponse(v.id(), v.customerEmail(), v.trainerEmail(),
+                                v.date().toString(), v.time().toString(), v.note());
+        }
+
         private BookingResponse toResponse(Booking b) {
                 return new BookingResponse(
                                 b.getId(),
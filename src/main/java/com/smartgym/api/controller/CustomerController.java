@@ -65,6 +65,26 @@ public class CustomerController {
         );
     }
 
+    @Operation(summary = "Customer booking history (newest first, keyset pagination)",
+            description = "Pass the `X-Next-Before-Id` header value as `before_id` to fetch the next page.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/{email}/history")
+    public ResponseEntity<ApiResponse<?>> history(@PathVariable String email,
+                                                  @RequestParam(name = "before_id", required = false) Long beforeId,
+                                                  @RequestParam(defaultValue = "50") int limit,
+                                                  HttpServletRequest req) {
+        var page = service.getCustomerHistory(email, beforeId, limit);
+        var response = ResponseEntity.ok();
+        if (page.size() == limit) {
+            response.header("X-Next-Before-Id", String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(
+                ApiResponse.ok(page, "Booking history retrieved successfully", java.time.Instant.now().toString(), req.getRequestURI())
+        );
+    }
+
     @Operation(summary = "Get customer by DNI")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200", description = "OK",
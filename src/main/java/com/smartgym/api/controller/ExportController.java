@@ -0,0 +1,61 @@
+package com.smartgym.api.controller;
+
+import com.smartgym.api.common.ApiResponse;
+import com.smartgym.application.BulkExporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.*;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@io.swagger.v3.oas.annotations.tags.Tag(name = "Export")
+@RestController
+@RequestMapping("/api/v1/export")
+public class ExportController {
+
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    private final BulkExporter exporter;
+
+    public ExportController(BulkExporter exporter) { this.exporter = exporter; }
+
+    @Operation(summary = "Stream bookings, attendance or progress as NDJSON or CSV",
+            description = "Rows are streamed from a forward-only cursor as they are read, without the ApiResponse " +
+                    "envelope, so memory use does not grow with the row count. `from`/`to` filter on the booking " +
+                    "date, attendance day or progress date (inclusive). Send `Accept-Encoding: gzip` to compress.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "Rows, one per line",
+            content = {@Content(mediaType = NDJSON), @Content(mediaType = CSV)})
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "Unknown dataset or format, or invalid range",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        // Todo lo validable va antes del cuerpo: con la respuesta comprometida ya no hay 422
+        var target = BulkExporter.Dataset.parse(dataset);
+        var output = BulkExporter.Format.parse(format);
+        BulkExporter.validateRange(from, to);
+
+        MediaType type = (output == BulkExporter.Format.CSV)
+                ? new MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8)
+                : MediaType.parseMediaType(NDJSON);
+        StreamingResponseBody body = out -> exporter.export(target, output, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(target.fileName(output)).build().toString())
+                .body(body);
+    }
+}
@@ -1,6 +1,13 @@
 package com.smartgym.api.controller;
 
 import com.smartgym.api.common.ApiResponse;
+import com.smartgym.application.ActiveRoutineCache;
+import com.smartgym.metrics.MetricsSummary;
+import com.smartgym.service.EntityCacheStats;
+import com.smartgym.service.KnownIdentityFilter;
+import com.smartgym.service.ResolvedIdentityCache;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,14 +22,50 @@ public class HealthController {
 
     private static final Instant START_TIME = Instant.now();
 
+    private final ResolvedIdentityCache identityCache;
+    private final ActiveRoutineCache routineCache;
+    private final EntityCacheStats entityCache;
+    private final KnownIdentityFilter identityFilter;
+    private final MetricsSummary metrics;
+    private final String threading;
+
+    public HealthController(ResolvedIdentityCache identityCache, ActiveRoutineCache routineCache,
+                            EntityCacheStats entityCache, KnownIdentityFilter identityFilter,
+                            MetricsSummary metrics, Environment environment) {
+        this.identityCache = identityCache;
+        this.routineCache = routineCache;
+        this.entityCache = entityCache;
+        this.identityFilter = identityFilter;
+        this.metrics = metrics;
+        this.threading = Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+    }
+
     @GetMapping
     public ApiResponse<?> health() {
         var uptime = Duration.between(START_TIME, Instant.now()).toSeconds();
         var payload = Map.of(
                 "status", "UP",
                 "startedAt", START_TIME.toString(),
-                "uptimeSeconds", uptime
+                "uptimeSeconds", uptime,
+                "threading", threading,
+                "identityCache", Map.of(
+                        "hits", identityCache.hits(),
+                        "misses", identityCache.misses(),
+                        "size", identityCache.size()
+                ),
+                "routineCache", Map.of(
+                        "hits", routineCache.hits(),
+                        "misses", routineCache.misses(),
+                        "size", routineCache.size()
+                ),
+                "entityCache", entityCache.snapshot(),
+                "identityFilter", Map.of(
+                        "ready", identityFilter.ready(),
+                        "definiteMisses", identityFilter.definiteMisses(),
+                        "estimatedFpp", identityFilter.estimatedFpp()
+                ),
+                "metrics", metrics.snapshot()
         );
         return ApiResponse.ok(payload, "Health check OK", Instant.now().toString(), "/api/v1/health");
     }
-}
\ No newline at end of file
+}
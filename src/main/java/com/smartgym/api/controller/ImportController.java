@@ -0,0 +1,49 @@
+package com.smartgym.api.controller;
+
+import com.smartgym.api.common.ApiResponse;
+import com.smartgym.application.BulkImporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.*;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+@io.swagger.v3.oas.annotations.tags.Tag(name = "Import")
+@RestController
+@RequestMapping("/api/v1/import")
+public class ImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final BulkImporter importer;
+
+    public ImportController(BulkImporter importer) { this.importer = importer; }
+
+    @Operation(summary = "Bulk upsert customers, trainers or identities from a CSV (with header) or NDJSON body",
+            description = "CSV columns: customers `email,name,age`; trainers `email,name,age,specialty`; " +
+                    "identities `dni,email`. NDJSON uses the same field names. Rows are validated like the " +
+                    "single-item endpoints; invalid or duplicated rows are reported by line and skipped.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "Import finished (see per-row errors)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "Unknown kind",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @PostMapping(value = "/{kind}", consumes = {"text/csv", NDJSON, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ApiResponse<BulkImporter.ImportReport>> importRows(@PathVariable String kind,
+                                                                             HttpServletRequest http) throws IOException {
+        var target = BulkImporter.Kind.parse(kind);
+        var format = (http.getContentType() != null && http.getContentType().startsWith(NDJSON))
+                ? BulkImporter.Format.NDJSON : BulkImporter.Format.CSV;
+        var report = importer.importFrom(target, format, new InputStreamReader(http.getInputStream(), StandardCharsets.UTF_8));
+        return ResponseEntity.ok(
+                ApiResponse.ok(report, "Import finished", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartgym.api.controller;
+
+import com.smartgym.api.common.ApiResponse;
+import com.smartgym.api.dto.OccupancyResponse;
+import com.smartgym.application.OccupancyTracker;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.*;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@io.swagger.v3.oas.annotations.tags.Tag(name = "Occupancy")
+@RestController
+@RequestMapping("/api/v1/occupancy")
+public class OccupancyController {
+
+    private final OccupancyTracker occupancy;
+
+    public OccupancyController(OccupancyTracker occupancy) { this.occupancy = occupancy; }
+
+    @Operation(summary = "People inside (open entries without exit), recent swipes and last hour by minute")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping
+    public ResponseEntity<ApiResponse<OccupancyResponse>> current(HttpServletRequest http) {
+        List<OccupancyResponse.Bucket> minutes = occupancy.lastHourByMinute().entrySet().stream()
+                .map(e -> new OccupancyResponse.Bucket(e.getKey().toString(), e.getValue()))
+                .toList();
+        long lastHour = minutes.stream().mapToLong(OccupancyResponse.Bucket::swipes).sum();
+        var body = new OccupancyResponse(occupancy.currentOccupancy(), occupancy.recentSwipes(),
+                occupancy.windowMinutes(), lastHour, minutes);
+        return ResponseEntity.ok(
+                ApiResponse.ok(body, "Occupancy retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    @Operation(summary = "Swipes per hour in a datetime range (inclusive, ISO-8601)")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "Invalid range",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/hourly")
+    public ResponseEntity<ApiResponse<List<OccupancyResponse.Bucket>>> hourly(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest http) {
+        var list = occupancy.hourly(from, to).entrySet().stream()
+                .map(e -> new OccupancyResponse.Bucket(e.getKey().toString(), e.getValue()))
+                .toList();
+        return ResponseEntity.ok(
+                ApiResponse.ok(list, "Hourly occupancy retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+}
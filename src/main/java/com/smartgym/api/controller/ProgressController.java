@@ -3,21 +3,33 @@ package com.smartgym.api.controller;
 import com.smartgym.api.common.ApiResponse;
 import com.smartgym.api.dto.ProgressCreateRequest;
 import com.smartgym.api.dto.ProgressListResponse;
+import com.smartgym.api.dto.ProgressBucketResponse;
+import com.smartgym.api.dto.ProgressItemResponse;
 import com.smartgym.application.GymExtensions;
+import com.smartgym.application.ProgressSeries;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.*;
 
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @io.swagger.v3.oas.annotations.tags.Tag(name = "Progress")
 @RestController
 @RequestMapping("/api/v1/progress")
 @Validated
 public class ProgressController {
 
+    static final int DEFAULT_ITEMS = 100;
+    static final int MAX_ITEMS = 1000;
+    static final int DEFAULT_POINTS = 100;
+    static final int MAX_POINTS = 1000;
+
     private final GymExtensions ext;
 
     public ProgressController(GymExtensions ext) { this.ext = ext; }
@@ -33,12 +45,9 @@ public class ProgressController {
     public ResponseEntity<ApiResponse<?>> add(@Valid @RequestBody ProgressCreateRequest req,
                                               jakarta.servlet.http.HttpServletRequest http) {
         validateRanges(req);
-        ext.addProgressByDni(req.getDni(), req.getWeightKg(), req.getBodyFatPct(), req.getMusclePct());
-        var list = ext.progressByDni(req.getDni());
-        var last = list.isEmpty() ? null : list.get(list.size() - 1);
-
-        var payload = (last == null) ? null : new com.smartgym.api.dto.ProgressItemResponse(
-                last.getDate(), last.getWeightKg(), last.getBodyFatPct(), last.getMusclePct()
+        var saved = ext.addProgressByDni(req.getDni(), req.getWeightKg(), req.getBodyFatPct(), req.getMusclePct());
+        var payload = new com.smartgym.api.dto.ProgressItemResponse(
+                saved.getDate(), saved.getWeightKg(), saved.getBodyFatPct(), saved.getMusclePct()
         );
 
         return org.springframework.http.ResponseEntity.status(201).body(
@@ -51,7 +60,7 @@ public class ProgressController {
         );
     }
 
-    @Operation(summary = "List progress by DNI (with totals and averages)")
+    @Operation(summary = "List latest progress by DNI (totals, averages and min/max over the full history)")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200", description = "OK",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
@@ -60,20 +69,28 @@ public class ProgressController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
     @GetMapping("/{dni}")
     public ResponseEntity<ApiResponse<ProgressListResponse>> list(@PathVariable String dni,
+                                                                  @RequestParam(defaultValue = "" + DEFAULT_ITEMS) int limit,
                                                                   jakarta.servlet.http.HttpServletRequest http) {
-        var list = ext.progressByDni(dni);
-
-        java.util.List<com.smartgym.api.dto.ProgressItemResponse> items = list.stream()
+        if (limit < 1 || limit > MAX_ITEMS) {
+            throw new com.smartgym.api.advice.DomainValidationException("limit must be between 1 and " + MAX_ITEMS + ".");
+        }
+        // Los agregados salen de progress_summaries; solo los ítems dependen de limit
+        var summary = ext.progressSummaryByDni(dni);
+        var items = ext.recentProgressByDni(dni, limit).stream()
                 .map(p -> new com.smartgym.api.dto.ProgressItemResponse(
                         p.getDate(), p.getWeightKg(), p.getBodyFatPct(), p.getMusclePct()
                 ))
                 .toList();
 
-        double avgW  = list.stream().mapToDouble(com.smartgym.domain.ProgressRecord::getWeightKg).average().orElse(0);
-        double avgBF = list.stream().mapToDouble(com.smartgym.domain.ProgressRecord::getBodyFatPct).average().orElse(0);
-        double avgM  = list.stream().mapToDouble(com.smartgym.domain.ProgressRecord::getMusclePct).average().orElse(0);
-
-        var payload = new com.smartgym.api.dto.ProgressListResponse(items, items.size(), avgW, avgBF, avgM);
+        var latest = summary.getLatestDate() == null ? null : new com.smartgym.api.dto.ProgressItemResponse(
+                summary.getLatestDate(), summary.getLatestWeightKg(), summary.getLatestBodyFatPct(), summary.getLatestMusclePct()
+        );
+        var payload = new ProgressListResponse(items, (int) summary.getRecords(),
+                summary.getAvgWeightKg(), summary.getAvgBodyFatPct(), summary.getAvgMusclePct(),
+                new ProgressListResponse.Range(summary.getWeightMin(), summary.getWeightMax()),
+                new ProgressListResponse.Range(summary.getBodyFatMin(), summary.getBodyFatMax()),
+                new ProgressListResponse.Range(summary.getMuscleMin(), summary.getMuscleMax()),
+                latest);
 
         return org.springframework.http.ResponseEntity.ok(
                 com.smartgym.api.common.ApiResponse.ok(
@@ -85,6 +102,63 @@ public class ProgressController {
         );
     }
 
+    @Operation(summary = "Progress aggregated by day, week or month in a date range (avg/min/max per metric)")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "DNI not linked or invalid range/bucket",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/{dni}/series")
+    public ResponseEntity<ApiResponse<List<ProgressBucketResponse>>> series(
+            @PathVariable String dni,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "week") String bucket,
+            jakarta.servlet.http.HttpServletRequest http) {
+        var unit = ProgressSeries.Bucket.parse(bucket);
+        var records = ext.progressBetween(dni, from == null ? LocalDate.EPOCH : from, to == null ? LocalDate.now() : to);
+        var list = ProgressSeries.bucket(records, unit).stream()
+                .map(b -> new ProgressBucketResponse(b.start(), b.end(), b.count(),
+                        toStat(b.weightKg()), toStat(b.bodyFatPct()), toStat(b.musclePct())))
+                .toList();
+        return ResponseEntity.ok(
+                ApiResponse.ok(list, "Progress series retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    @Operation(summary = "Progress downsampled to N points (LTTB on the chosen metric) for charts")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "422", description = "DNI not linked or invalid range/points/metric",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/{dni}/chart")
+    public ResponseEntity<ApiResponse<List<ProgressItemResponse>>> chart(
+            @PathVariable String dni,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "" + DEFAULT_POINTS) int points,
+            @RequestParam(defaultValue = "weight") String metric,
+            jakarta.servlet.http.HttpServletRequest http) {
+        if (points < 3 || points > MAX_POINTS) {
+            throw new com.smartgym.api.advice.DomainValidationException("points must be between 3 and " + MAX_POINTS + ".");
+        }
+        var target = ProgressSeries.Metric.parse(metric);
+        var records = ext.progressBetween(dni, from == null ? LocalDate.EPOCH : from, to == null ? LocalDate.now() : to);
+        var list = ProgressSeries.lttb(records, points, target).stream()
+                .map(p -> new ProgressItemResponse(p.getDate(), p.getWeightKg(), p.getBodyFatPct(), p.getMusclePct()))
+                .toList();
+        return ResponseEntity.ok(
+                ApiResponse.ok(list, "Progress chart retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    private static ProgressBucketResponse.Stat toStat(ProgressSeries.Stat s) {
+        return new ProgressBucketResponse.Stat(s.avg(), s.min(), s.max());
+    }
+
         /**
          * Validación de rangos antes de acceder a la base para devolver 422 claros.
          */
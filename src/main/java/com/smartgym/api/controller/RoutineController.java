@@ -2,7 +2,11 @@ package com.smartgym.api.controller;
 
 import com.smartgym.api.common.ApiResponse;
 import com.smartgym.api.dto.RoutineAssignRequest;
+import com.smartgym.api.dto.RoutineBulkAssignRequest;
+import com.smartgym.api.dto.RoutineJobResponse;
 import com.smartgym.application.GymExtensions;
+import com.smartgym.application.RoutineBulkAssignmentJob;
+import com.smartgym.application.RoutinePlan;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.*;
 
@@ -22,8 +26,12 @@ import java.util.Map;
 public class RoutineController {
 
     private final GymExtensions ext;
+    private final RoutineBulkAssignmentJob bulkJob;
 
-    public RoutineController(GymExtensions ext) { this.ext = ext; }
+    public RoutineController(GymExtensions ext, RoutineBulkAssignmentJob bulkJob) {
+        this.ext = ext;
+        this.bulkJob = bulkJob;
+    }
 
     @Operation(summary = "Assign random weekly routine (Mon–Sat) by DNI")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -35,18 +43,14 @@ public class RoutineController {
     @PostMapping("/assign")
     public ResponseEntity<ApiResponse<Map<?, ?>>> assign(@Valid @RequestBody RoutineAssignRequest req, HttpServletRequest http) {
         var email = ext.emailByDni(req.dni()).orElseThrow(() -> new IllegalArgumentException("DNI not linked"));
-        var r = ext.assignRandomRoutine(email);
-        var planLower = r.getPlan().entrySet().stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        e -> e.getKey().toString().toLowerCase(),
-                        e -> e.getValue()
-                ));
+        var planLower = RoutinePlan.of(ext.assignRandomRoutine(email)).byDayLower();
         return ResponseEntity.status(201).body(
                 ApiResponse.ok(planLower, "Routine assigned successfully", java.time.Instant.now().toString(), http.getRequestURI())
         );
     }
 
-    @Operation(summary = "Routine history (last is ACTIVE)")
+    @Operation(summary = "Routine history page (chronological; on the first page the last one is ACTIVE)",
+            description = "Pass the `X-Next-Before-Id` header value as `before_id` to fetch older routines.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200", description = "OK",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
@@ -54,22 +58,21 @@ public class RoutineController {
             responseCode = "404", description = "DNI not linked",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
     @GetMapping("/history/{dni}")
-    public ResponseEntity<ApiResponse<Object>> history(@PathVariable String dni, HttpServletRequest http) {
+    public ResponseEntity<ApiResponse<Object>> history(@PathVariable String dni,
+                                                       @RequestParam(name = "before_id", required = false) Long beforeId,
+                                                       @RequestParam(defaultValue = "50") int limit,
+                                                       HttpServletRequest http) {
         var email = ext.emailByDni(dni).orElseThrow(() -> new IllegalArgumentException("DNI not linked"));
-        var list = ext.routineHistory(email);
-        var normalized = list.stream().map(r -> {
-            var lower = r.getPlan().entrySet().stream().collect(
-                    java.util.stream.Collectors.toMap(
-                            e -> e.getKey().toString().toLowerCase(),
-                            e -> e.getValue()
-                    )
-            );
-            return java.util.Map.of(
-                    "plan", lower,
-                    "created_at", r.getCreatedAt()
-            );
-        }).toList();
-        return ResponseEntity.ok(
+        var list = ext.routineHistory(email, beforeId, limit);
+        var normalized = list.stream().map(r -> java.util.Map.of(
+                "plan", r.byDayLower(),
+                "created_at", r.createdAt()
+        )).toList();
+        var response = ResponseEntity.ok();
+        if (list.size() == limit) {
+            response.header("X-Next-Before-Id", String.valueOf(list.get(0).routineId()));
+        }
+        return response.body(
                 ApiResponse.ok(normalized, "Routine history retrieved successfully", java.time.Instant.now().toString(), http.getRequestURI())
         );
     }
@@ -89,11 +92,65 @@ public class RoutineController {
         DayOfWeek d = DayOfWeek.valueOf(day.toUpperCase()); // puede lanzar IllegalArgumentException -> 422
         var email = ext.emailByDni(dni).orElseThrow(() -> new IllegalArgumentException("DNI not linked"));
         var active = ext.activeRoutine(email).orElseThrow(() -> new IllegalArgumentException("No active routine"));
-        String block = active.getFor(d);
-        var payload = java.util.Map.of("day", d.name().toLowerCase(), "block", block);
+        String block = active.blockFor(d);
+        var payload = java.util.Map.of("day", RoutinePlan.key(d), "block", block);
         return ResponseEntity.ok(
                 ApiResponse.ok(payload, "Active routine block retrieved successfully",
                         java.time.Instant.now().toString(), http.getRequestURI())
         );
     }
+
+    @Operation(summary = "Start a bulk routine assignment job (all customers or those with attendance since a date)")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "202", description = "Accepted",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "409", description = "Another job is running",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @PostMapping("/assign-jobs")
+    public ResponseEntity<ApiResponse<RoutineJobResponse>> startBulk(@RequestBody(required = false) RoutineBulkAssignRequest req,
+                                                                     HttpServletRequest http) {
+        var job = (req == null) ? bulkJob.start(null, null) : bulkJob.start(req.activeSince(), req.chunkSize());
+        return ResponseEntity.status(202).body(
+                ApiResponse.ok(toResponse(bulkJob.progress(job.getId())), "Routine assignment job started",
+                        java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    @Operation(summary = "Bulk routine assignment job progress and throughput")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", description = "OK",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @GetMapping("/assign-jobs/{id}")
+    public ResponseEntity<ApiResponse<RoutineJobResponse>> bulkStatus(@PathVariable long id, HttpServletRequest http) {
+        return ResponseEntity.ok(
+                ApiResponse.ok(toResponse(bulkJob.progress(id)), "Routine assignment job retrieved successfully",
+                        java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    @Operation(summary = "Resume an interrupted or failed bulk routine assignment job")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "202", description = "Accepted",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "409", description = "Job completed or another job is running",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiResponse.class)))
+    @PostMapping("/assign-jobs/{id}/resume")
+    public ResponseEntity<ApiResponse<RoutineJobResponse>> resumeBulk(@PathVariable long id, HttpServletRequest http) {
+        bulkJob.resume(id);
+        return ResponseEntity.status(202).body(
+                ApiResponse.ok(toResponse(bulkJob.progress(id)), "Routine assignment job resumed",
+                        java.time.Instant.now().toString(), http.getRequestURI())
+        );
+    }
+
+    private static RoutineJobResponse toResponse(RoutineBulkAssignmentJob.Progress p) {
+        var j = p.job();
+        return new RoutineJobResponse(j.getId(), j.getStatus().name(), str(j.getActiveSince()), j.getChunkSize(),
+                j.getTotal(), j.getProcessed(), Math.round(p.throughputPerSecond() * 10) / 10.0,
+                str(j.getStartedAt()), str(j.getUpdatedAt()), str(j.getFinishedAt()), j.getError());
+    }
+
+    private static String str(Object value) { return value == null ? null : value.toString(); }
 }
@@ -0,0 +1,27 @@
+package com.smartgym.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Recurring weekly booking request")
+public record BookingBatchRequest(
+        @NotBlank @Email(message = "Invalid customer email")
+        @JsonAlias({"customer_email","customerEmail"}) String customerEmail,
+        @NotBlank @Email(message = "Invalid trainer email")
+        @JsonAlias({"trainer_email","trainerEmail"}) String trainerEmail,
+        @NotNull @JsonAlias({"start_date","startDate"}) LocalDate startDate,
+        @NotNull @JsonAlias({"end_date","endDate"}) LocalDate endDate,
+        @NotEmpty @JsonAlias({"days_of_week","daysOfWeek"}) List<String> daysOfWeek,
+        @NotBlank
+        @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "Time must be HH:mm 24h")
+        String time,
+        @jakarta.validation.constraints.Size(max = 250) String note
+) {}
@@ -0,0 +1,7 @@
+package com.smartgym.api.dto;
+
+import java.util.List;
+
+public record BookingBatchResponse(List<SlotResult> results, int created, int conflicts, int rejected) {
+    public record SlotResult(String date, String time, String status, Long bookingId, String reason) {}
+}
@@ -0,0 +1,8 @@
+package com.smartgym.api.dto;
+
+import java.util.List;
+
+public record OccupancyResponse(long current, long recentSwipes, int windowMinutes, long lastHour,
+                                List<Bucket> lastHourByMinute) {
+    public record Bucket(String start, long swipes) {}
+}
@@ -0,0 +1,10 @@
+package com.smartgym.api.dto;
+
+import java.time.LocalDate;
+
+public record ProgressBucketResponse(
+        LocalDate start, LocalDate end, int count,
+        Stat weightKg, Stat bodyFatPct, Stat musclePct
+) {
+    public record Stat(double avg, double min, double max) {}
+}
@@ -4,5 +4,9 @@ import java.util.List;
 
 public record ProgressListResponse(
         List<ProgressItemResponse> items, int total,
-        double avgWeightKg, double avgBodyFatPct, double avgMusclePct
-) {}
\ No newline at end of file
+        double avgWeightKg, double avgBodyFatPct, double avgMusclePct,
+        Range weightKg, Range bodyFatPct, Range musclePct,
+        ProgressItemResponse latest
+) {
+    public record Range(double min, double max) {}
+}
@@ -0,0 +1,12 @@
+package com.smartgym.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Bulk routine assignment. Without activeSince every customer is included.")
+public record RoutineBulkAssignRequest(
+        @JsonAlias({"active_since","activeSince"}) LocalDate activeSince,
+        @JsonAlias({"chunk_size","chunkSize"}) Integer chunkSize
+) {}
@@ -0,0 +1,7 @@
+package com.smartgym.api.dto;
+
+public record RoutineJobResponse(
+        Long id, String status, String activeSince, int chunkSize,
+        long total, long processed, double throughputPerSecond,
+        String startedAt, String updatedAt, String finishedAt, String error
+) {}
@@ -0,0 +1,9 @@
+package com.smartgym.api.dto;
+
+public record VisitStatsResponse(String email,
+                                 long visits,
+                                 long averageVisitSeconds,
+                                 long unmatchedEntries,
+                                 String lastVisitStart,
+                                 String lastVisitEnd,
+                                 String openEntryAt) {}
@@ -0,0 +1,42 @@
+package com.smartgym.application;
+
+import com.smartgym.service.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caché email → rutina activa ({@link RoutinePlan}) para {@code GET /routines/active}.
+ * Se invalida por email al asignar una rutina nueva. El lector toma {@link #stamp(String)}
+ * antes de cargar la rutina: ver {@link BoundedCache}.
+ */
+@Component
+public class ActiveRoutineCache {
+
+    private final BoundedCache<String, RoutinePlan> entries;
+
+    public ActiveRoutineCache(@Value("${smartgym.routine-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new BoundedCache<>(maxEntries);
+    }
+
+    public RoutinePlan get(String email) {
+        return entries.get(email);
+    }
+
+    public long stamp(String email) {
+        return entries.stamp(email);
+    }
+
+    public void put(String email, RoutinePlan plan, long stamp) {
+        entries.put(email, plan, stamp);
+    }
+
+    public void invalidate(String email) {
+        entries.invalidate(email);
+    }
+
+    public void clear() { entries.clear(); }
+
+    public long hits() { return entries.hits(); }
+    public long misses() { return entries.misses(); }
+    public int size() { return entries.size(); }
+}
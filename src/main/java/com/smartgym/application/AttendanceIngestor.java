@@ -0,0 +1,369 @@
+package com.smartgym.application;
+
+import com.smartgym.domain.AttendanceRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ingesta asíncrona de asistencias (modo {@code smartgym.attendance.ingestion.mode=async}).
+ * <p>
+ * El acceso se confirma en cuanto la marca queda escrita en un write-ahead log local y en
+ * una cola acotada; un hilo de fondo inserta por lotes con JDBC batch. Al arrancar, como
+ * {@link SmartLifecycle} de fase anterior al servidor web, se persisten las entradas del WAL
+ * posteriores al último checkpoint (entrega al menos una vez) y se inicia el escritor: Tomcat no
+ * acepta accesos hasta que la ingesta está en marcha. Al parar, el servidor web se detiene antes
+ * y el escritor vacía la cola. Con la cola llena el acceso falla con {@link BackpressureException}.
+ * <p>
+ * El WAL hace commit en grupo: cada acceso escribe su línea bajo el lock y después espera a un
+ * {@code fsync} que cubra su secuencia; un único {@code force} confirma a todos los que escribieron
+ * mientras el anterior estaba en curso.
+ * <p>
+ * Un lote que falla {@value #MAX_BATCH_ATTEMPTS} veces se inserta fila a fila: las filas que la
+ * base rechaza van a {@code attendance.dead} (mismo formato que el WAL) y el checkpoint las pasa.
+ * Si la base no está disponible el lote se sigue reintentando.
+ */
+@Component
+public class AttendanceIngestor implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AttendanceIngestor.class);
+    private static final String INSERT_SQL = "insert into attendance_records (email, role, timestamp) values (?, ?, ?)";
+    static final int MAX_BATCH_ATTEMPTS = 3;
+
+    /**
+     * Línea del WAL: {@code seq|rol|instante|longitud|email}. El email va al final con su longitud:
+     * puede contener {@code |} y una línea cortada por un crash no pasa por válida.
+     */
+    record Swipe(long seq, String email, AttendanceRecord.Role role, LocalDateTime timestamp) {
+        String toLine() { return seq + "|" + role + "|" + timestamp + "|" + email.length() + "|" + email + "\n"; }
+
+        static Swipe parse(String line) {
+            String[] p = line.split("\\|", 5);
+            if (p.length == 4) {
+                // Formato anterior (seq|email|rol|instante): WAL escrito antes de actualizar
+                return new Swipe(Long.parseLong(p[0]), p[1], AttendanceRecord.Role.valueOf(p[2]), LocalDateTime.parse(p[3]));
+            }
+            String email = p[4];
+            if (email.length() != Integer.parseInt(p[3])) {
+                throw new IllegalArgumentException("Truncated attendance WAL line");
+            }
+            return new Swipe(Long.parseLong(p[0]), email, AttendanceRecord.Role.valueOf(p[1]), LocalDateTime.parse(p[2]));
+        }
+    }
+
+    private final boolean async;
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final Path walFile;
+    private final Path checkpointFile;
+    private final Path deadLetterFile;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    private final LinkedBlockingQueue<Swipe> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final ReentrantLock walLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private FileChannel wal;
+    private long lastSeq;
+    private volatile long writtenSeq; // última secuencia escrita por completo en el WAL
+    private volatile long durableSeq; // última secuencia cubierta por un fsync
+    private volatile long checkpointSeq;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AttendanceIngestor(@Value("${smartgym.attendance.ingestion.mode:sync}") String mode,
+                              @Value("${smartgym.attendance.ingestion.queue-capacity:10000}") int queueCapacity,
+                              @Value("${smartgym.attendance.ingestion.flush-size:200}") int flushSize,
+                              @Value("${smartgym.attendance.ingestion.flush-interval-ms:200}") long flushIntervalMs,
+                              @Value("${smartgym.attendance.ingestion.offer-timeout-ms:50}") long offerTimeoutMs,
+                              @Value("${smartgym.attendance.ingestion.wal-dir:./data/attendance-wal}") String walDir,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate tx) {
+        this.async = "async".equalsIgnoreCase(mode);
+        this.capacity = new Semaphore(queueCapacity);
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.walFile = Path.of(walDir, "attendance.wal");
+        this.checkpointFile = Path.of(walDir, "attendance.checkpoint");
+        this.deadLetterFile = Path.of(walDir, "attendance.dead");
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = tx;
+    }
+
+    public boolean isAsync() { return async; }
+
+    public int pending() { return queue.size(); }
+
+    @Override
+    public void start() {
+        if (!async) return;
+        try {
+            Files.createDirectories(walFile.getParent());
+            checkpointSeq = readCheckpoint();
+            lastSeq = checkpointSeq;
+            replay();
+            writtenSeq = lastSeq;
+            durableSeq = lastSeq;
+            wal = FileChannel.open(walFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open attendance WAL in " + walFile.getParent(), e);
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "attendance-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Registra la marca de forma durable (WAL + cola). Retorna cuando el acceso puede confirmarse.
+     */
+    public void submit(String email, AttendanceRecord.Role role, LocalDateTime timestamp) {
+        if (!running) throw new IllegalStateException("Attendance ingestion is not running");
+        try {
+            if (!capacity.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new BackpressureException("Attendance queue is full, retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackpressureException("Interrupted while waiting for attendance queue");
+        }
+        long seq;
+        walLock.lock();
+        try {
+            Swipe swipe = new Swipe(lastSeq + 1, email, role, timestamp);
+            wal.write(ByteBuffer.wrap(swipe.toLine().getBytes(StandardCharsets.UTF_8)));
+            seq = ++lastSeq;
+            writtenSeq = seq;
+            queue.add(swipe); // bajo el mismo lock: el orden de la cola sigue al del WAL
+        } catch (IOException e) {
+            capacity.release();
+            throw new UncheckedIOException("Could not append to attendance WAL", e);
+        } finally {
+            walLock.unlock();
+        }
+        try {
+            awaitDurable(seq);
+        } catch (IOException e) {
+            // La marca ya está en la cola: puede persistirse aunque el acceso se informe como fallido
+            throw new UncheckedIOException("Could not sync attendance WAL", e);
+        }
+    }
+
+    // Commit en grupo: quien toma el lock sincroniza todo lo escrito hasta ese momento
+    private void awaitDurable(long seq) throws IOException {
+        if (durableSeq >= seq) return;
+        syncLock.lock();
+        try {
+            if (durableSeq >= seq) return; // lo cubrió el fsync de otro hilo
+            long covered = writtenSeq;
+            wal.force(false);
+            durableSeq = covered;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        List<Swipe> batch = new ArrayList<>(flushSize);
+        int attempts = 0;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Swipe first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    // Espera breve para completar el lote si hay poco tráfico
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                    while (batch.size() < flushSize) {
+                        long left = deadline - System.nanoTime();
+                        Swipe next = (left > 0) ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                }
+                int size = batch.size();
+                try {
+                    if (attempts < MAX_BATCH_ATTEMPTS) {
+                        flush(batch);
+                        batch.clear();
+                    } else {
+                        flushRowByRow(batch);
+                    }
+                } finally {
+                    capacity.release(size - batch.size());
+                }
+                attempts = 0;
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                // El lote se conserva y se reintenta; sigue en el WAL si el proceso cae
+                attempts++;
+                log.warn("Attendance batch of {} failed (attempt {}), retrying: {}", batch.size(), attempts, e.getMessage());
+                sleepQuietly(Math.max(flushIntervalMs, 500));
+            }
+        }
+    }
+
+    private void flush(List<Swipe> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Swipe s : batch) {
+            rows.add(new Object[] {s.email(), s.role().name(), Timestamp.valueOf(s.timestamp())});
+        }
+        tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        checkpoint(batch.get(batch.size() - 1).seq());
+    }
+
+    /**
+     * Aísla las filas que la base rechaza. Las ya tratadas salen del lote; un fallo de conexión
+     * se propaga y el resto del lote se reintenta más tarde.
+     */
+    private void flushRowByRow(List<Swipe> batch) {
+        long handled = -1;
+        try {
+            for (Iterator<Swipe> it = batch.iterator(); it.hasNext(); ) {
+                Swipe s = it.next();
+                try {
+                    tx.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL,
+                            s.email(), s.role().name(), Timestamp.valueOf(s.timestamp())));
+                } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    deadLetter(s, e);
+                }
+                handled = s.seq();
+                it.remove();
+            }
+        } finally {
+            if (handled >= 0) checkpoint(handled);
+        }
+    }
+
+    private void deadLetter(Swipe swipe, RuntimeException cause) {
+        log.error("Attendance record seq={} rejected by the database, moved to {}: {}",
+                swipe.seq(), deadLetterFile, cause.getMessage());
+        try {
+            Files.writeString(deadLetterFile, swipe.toLine(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write attendance dead-letter file", e);
+        }
+    }
+
+    private void checkpoint(long seq) {
+        try {
+            Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.writeString(tmp, Long.toString(seq), StandardCharsets.UTF_8);
+            Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpointSeq = seq;
+            if (wal != null) compactIfDrained();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write attendance checkpoint", e);
+        }
+    }
+
+    // Con todo persistido el WAL ya no aporta nada: se trunca para que no crezca sin límite
+    private void compactIfDrained() throws IOException {
+        if (!walLock.tryLock()) return;
+        try {
+            if (lastSeq == checkpointSeq) wal.truncate(0);
+        } finally {
+            walLock.unlock();
+        }
+    }
+
+    // Persiste lo que quedó en el WAL tras el último checkpoint; corre antes de arrancar el servidor web
+    private void replay() throws IOException {
+        if (!Files.exists(walFile)) return;
+        List<Swipe> pending = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(walFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Swipe swipe;
+                try {
+                    swipe = Swipe.parse(line);
+                } catch (RuntimeException e) {
+                    log.warn("Skipping corrupt attendance WAL line: {}", line); // p.ej. escritura cortada por un crash
+                    continue;
+                }
+                lastSeq = Math.max(lastSeq, swipe.seq());
+                if (swipe.seq() > checkpointSeq) pending.add(swipe);
+            }
+        }
+        for (int from = 0; from < pending.size(); from += flushSize) {
+            List<Swipe> chunk = pending.subList(from, Math.min(from + flushSize, pending.size()));
+            try {
+                flush(chunk);
+            } catch (RuntimeException e) {
+                flushRowByRow(new ArrayList<>(chunk));
+            }
+        }
+        if (!pending.isEmpty()) log.info("Replayed {} attendance records from WAL", pending.size());
+        Files.write(walFile, new byte[0]);
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) return 0;
+        String value = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim();
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) return;
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10)); // vacía la cola antes de cerrar
+            wal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Could not close attendance WAL: {}", e.getMessage());
+        } finally {
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() { return writer != null; }
+
+    // Antes que el servidor web (WebServerStartStopLifecycle): arranca antes y para después
+    @Override
+    public int getPhase() { return 0; }
+
+    private static void sleepQuietly(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
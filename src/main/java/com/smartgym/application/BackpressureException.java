@@ -0,0 +1,8 @@
+package com.smartgym.application;
+
+/**
+ * La ingesta está saturada; el cliente debe reintentar. Se mapea a HTTP 503.
+ */
+public class BackpressureException extends RuntimeException {
+    public BackpressureException(String message) { super(message); }
+}
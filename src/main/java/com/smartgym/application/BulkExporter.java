@@ -0,0 +1,296 @@
+package com.smartgym.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exportación masiva de reservas, asistencia y progreso en NDJSON o CSV.
+ * <p>
+ * Las filas se leen con un cursor JDBC de solo avance y se escriben directamente en la
+ * salida a medida que llegan: nada se acumula en memoria, así que el heap no depende del
+ * número de filas. En H2 se activa {@code LAZY_QUERY_EXECUTION} en la conexión mientras dura
+ * la consulta para que el motor tampoco materialice el resultado.
+ */
+@Component
+public class BulkExporter {
+    private static final Logger log = LoggerFactory.getLogger(BulkExporter.class);
+
+    public enum Dataset {
+        // Columnas en orden de salida; el nombre es el de la columna en NDJSON y en la cabecera CSV
+        BOOKINGS("select id, customer_email, trainer_email, date, time, note from bookings",
+                "date", false, "id",
+                new Column("id", Types.BIGINT), new Column("customer_email", Types.VARCHAR),
+                new Column("trainer_email", Types.VARCHAR), new Column("date", Types.DATE),
+                new Column("time", Types.TIME), new Column("note", Types.VARCHAR)),
+        ATTENDANCE("select id, email, role, timestamp from attendance_records",
+                "timestamp", true, "timestamp, id",
+                new Column("id", Types.BIGINT), new Column("email", Types.VARCHAR),
+                new Column("role", Types.VARCHAR), new Column("timestamp", Types.TIMESTAMP)),
+        PROGRESS("select id, customer_email, date, weight_kg, body_fat_pct, muscle_pct from progress_records",
+                "date", false, "id",
+                new Column("id", Types.BIGINT), new Column("customer_email", Types.VARCHAR),
+                new Column("date", Types.DATE), new Column("weight_kg", Types.DOUBLE),
+                new Column("body_fat_pct", Types.DOUBLE), new Column("muscle_pct", Types.DOUBLE));
+
+        final String select;
+        final String dateColumn;
+        final boolean timestampFilter;
+        final String orderBy;
+        final List<Column> columns;
+
+        Dataset(String select, String dateColumn, boolean timestampFilter, String orderBy, Column... columns) {
+            this.select = select;
+            this.dateColumn = dateColumn;
+            this.timestampFilter = timestampFilter;
+            this.orderBy = orderBy;
+            this.columns = List.of(columns);
+        }
+
+        public String fileName(Format format) {
+            return name().toLowerCase(Locale.ROOT) + (format == Format.CSV ? ".csv" : ".ndjson");
+        }
+
+        public static Dataset parse(String value) {
+            try {
+                return Dataset.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Export dataset must be one of bookings, attendance, progress");
+            }
+        }
+    }
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Export format must be ndjson or csv");
+            }
+        }
+    }
+
+    record Column(String name, int type) {}
+
+    private final int fetchSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper mapper;
+
+    public BulkExporter(@Value("${smartgym.export.fetch-size:1000}") int fetchSize,
+                        JdbcTemplate jdbcTemplate,
+                        ObjectMapper mapper) {
+        this.fetchSize = fetchSize;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Valida el rango antes de empezar a escribir: una vez enviada la cabecera HTTP ya no
+     * se puede responder con un error.
+     */
+    public static void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from.");
+        }
+    }
+
+    /**
+     * Escribe las filas de {@code dataset} con fecha en [from, to] (ambos opcionales e inclusive).
+     * Devuelve el número de filas escritas. No cierra {@code out}.
+     */
+    public long export(Dataset dataset, Format format, LocalDate from, LocalDate to, OutputStream out) {
+        validateRange(from, to);
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        RowWriter rows = (format == Format.CSV) ? new CsvRowWriter(writer, dataset.columns) : new NdjsonRowWriter(writer, dataset.columns);
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(dataset.select);
+        if (from != null) {
+            sql.append(params.isEmpty() ? " where " : " and ").append(dataset.dateColumn).append(" >= ?");
+            params.add(dataset.timestampFilter ? Timestamp.valueOf(from.atStartOfDay()) : Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(params.isEmpty() ? " where " : " and ").append(dataset.dateColumn).append(" < ?");
+            params.add(dataset.timestampFilter ? Timestamp.valueOf(to.plusDays(1).atStartOfDay()) : Date.valueOf(to.plusDays(1)));
+        }
+        sql.append(" order by ").append(dataset.orderBy);
+
+        long written = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            boolean lazy = isH2(con);
+            if (lazy) setLazy(con, true);
+            try (PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) ps.setObject(i + 1, params.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    rows.begin();
+                    long n = 0;
+                    while (rs.next()) {
+                        rows.write(rs);
+                        n++;
+                    }
+                    rows.end();
+                    return n;
+                }
+            } catch (IOException e) {
+                // Normalmente el cliente cortó la descarga: se aborta la consulta y se libera la conexión
+                throw new UncheckedIOException("Could not write export", e);
+            } finally {
+                if (lazy) setLazy(con, false);
+            }
+        });
+        log.info("Exported {} {} rows as {} in {} ms", written, dataset.name().toLowerCase(Locale.ROOT),
+                format.name().toLowerCase(Locale.ROOT), (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+
+    private static boolean isH2(Connection con) throws SQLException {
+        return "H2".equals(con.getMetaData().getDatabaseProductName());
+    }
+
+    // La conexión vuelve al pool: hay que dejar la sesión como estaba
+    private static void setLazy(Connection con, boolean on) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("set lazy_query_execution " + (on ? "1" : "0"));
+        }
+    }
+
+    private interface RowWriter {
+        void begin() throws IOException;
+        void write(ResultSet rs) throws IOException, SQLException;
+        void end() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final List<Column> columns;
+        private JsonGenerator gen;
+
+        NdjsonRowWriter(Writer writer, List<Column> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            gen = mapper.getFactory().createGenerator(writer);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null); // el separador de línea lo escribe write()
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            gen.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                Column c = columns.get(i);
+                gen.writeFieldName(c.name());
+                switch (c.type()) {
+                    case Types.BIGINT -> {
+                        long v = rs.getLong(i + 1);
+                        if (rs.wasNull()) gen.writeNull(); else gen.writeNumber(v);
+                    }
+                    case Types.DOUBLE -> {
+                        double v = rs.getDouble(i + 1);
+                        if (rs.wasNull()) gen.writeNull(); else gen.writeNumber(v);
+                    }
+                    default -> {
+                        String v = text(rs, i + 1, c.type());
+                        if (v == null) gen.writeNull(); else gen.writeString(v);
+                    }
+                }
+            }
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            gen.flush();
+            writer.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final List<Column> columns;
+
+        CsvRowWriter(Writer writer, List<Column> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) writer.write(',');
+                writer.write(columns.get(i).name());
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) writer.write(',');
+                String v = text(rs, i + 1, columns.get(i).type());
+                if (v != null) writer.write(csvCell(v));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+    }
+
+    // Fechas y horas en ISO-8601, igual que en la API
+    private static String text(ResultSet rs, int index, int type) throws SQLException {
+        Object value = switch (type) {
+            case Types.DATE -> rs.getObject(index, LocalDate.class);
+            case Types.TIME -> rs.getObject(index, LocalTime.class);
+            case Types.TIMESTAMP -> rs.getObject(index, LocalDateTime.class);
+            default -> rs.getString(index);
+        };
+        return value == null ? null : value.toString();
+    }
+
+    // Inverso de BulkImporter.parseCsvLine: comillas si hay coma, comillas o salto de línea
+    static String csvCell(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
@@ -0,0 +1,363 @@
+package com.smartgym.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartgym.api.dto.CustomerDto;
+import com.smartgym.api.dto.IdentityLinkRequest;
+import com.smartgym.api.dto.TrainerDto;
+import com.smartgym.service.EntityCacheStats;
+import com.smartgym.service.KnownIdentityFilter;
+import com.smartgym.service.ResolvedIdentityCache;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de clientes, entrenadores y vínculos DNI→email desde CSV (con cabecera)
+ * o NDJSON. El archivo se lee línea a línea; cada fila se valida con las mismas reglas que la
+ * API, se deduplica en memoria (gana la primera aparición) y se hace upsert con
+ * {@code MERGE ... KEY} en lotes JDBC, un lote por transacción.
+ * <p>
+ * Los errores se reportan por línea y no detienen la importación; si la base rechaza un lote se
+ * reintenta fila a fila para reportar las filas culpables. Al terminar se vacían la
+ * caché de identidades y la de segundo nivel de las entidades, porque nombres y roles pueden haber cambiado.
+ */
+@Component
+public class BulkImporter {
+    private static final Logger log = LoggerFactory.getLogger(BulkImporter.class);
+    private static final String MALFORMED = "__malformed";
+
+    public enum Kind {
+        CUSTOMERS("email", "merge into customers (email, name, age) key (email) values (?, ?, ?)"),
+        TRAINERS("email", "merge into trainers (email, name, age, specialty) key (email) values (?, ?, ?, ?)"),
+        IDENTITIES("dni", "merge into identity_links (dni, email) key (dni) values (?, ?)");
+
+        final String keyField;
+        final String upsertSql;
+
+        Kind(String keyField, String upsertSql) {
+            this.keyField = keyField;
+            this.upsertSql = upsertSql;
+        }
+
+        public static Kind parse(String value) {
+            try {
+                return Kind.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Import kind must be one of customers, trainers, identities");
+            }
+        }
+    }
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromFileName(String name) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".csv")) return CSV;
+            if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) return NDJSON;
+            throw new IllegalArgumentException("Unsupported import file (use .csv, .ndjson or .jsonl): " + name);
+        }
+    }
+
+    public record RowError(long line, String key, String message) {}
+
+    public record ImportReport(String kind, long rowsRead, long imported, long duplicates, long rejected,
+                               long millis, List<RowError> errors, boolean errorsTruncated) {}
+
+    private record PendingRow(long line, Object[] values) {}
+
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final Validator validator;
+    private final ObjectMapper mapper;
+    private final ResolvedIdentityCache identityCache;
+    private final EntityCacheStats entityCache;
+    private final KnownIdentityFilter identityFilter;
+
+    public BulkImporter(@Value("${smartgym.import.batch-size:1000}") int batchSize,
+                        @Value("${smartgym.import.max-reported-errors:1000}") int maxReportedErrors,
+                        JdbcTemplate jdbcTemplate,
+                        TransactionTemplate tx,
+                        Validator validator,
+                        ObjectMapper mapper,
+                        ResolvedIdentityCache identityCache,
+                        EntityCacheStats entityCache,
+                        KnownIdentityFilter identityFilter) {
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = tx;
+        this.validator = validator;
+        this.mapper = mapper;
+        this.identityCache = identityCache;
+        this.entityCache = entityCache;
+        this.identityFilter = identityFilter;
+    }
+
+    public ImportReport importFrom(Kind kind, Format format, Reader source) {
+        long start = System.nanoTime();
+        Map<String, Long> seen = new HashMap<>();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        List<RowError> errors = new ArrayList<>();
+        long rows = 0, imported = 0, duplicates = 0;
+
+        try (BufferedReader reader = new BufferedReader(source, 1 << 16)) {
+            Iterator<Map.Entry<Long, Map<String, String>>> it = (format == Format.CSV) ? csvRows(reader) : ndjsonRows(reader);
+            while (it.hasNext()) {
+                var row = it.next();
+                long line = row.getKey();
+                rows++;
+                Map<String, String> fields = row.getValue();
+                String key = normalize(fields.get(kind.keyField));
+                if (fields.containsKey(MALFORMED)) {
+                    addError(errors, new RowError(line, null, fields.get(MALFORMED)));
+                    continue;
+                }
+                try {
+                    Object[] values = toValues(kind, fields);
+                    Long first = seen.putIfAbsent(key, line);
+                    if (first != null) {
+                        duplicates++;
+                        addError(errors, new RowError(line, key, "Duplicate of line " + first));
+                        continue;
+                    }
+                    batch.add(new PendingRow(line, values));
+                } catch (IllegalArgumentException e) {
+                    addError(errors, new RowError(line, key, e.getMessage()));
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    imported += flush(kind, batch, errors);
+                }
+            }
+            imported += flush(kind, batch, errors);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read import source", e);
+        } finally {
+            // Incluso si falla a mitad: los lotes confirmados ya cambiaron nombres/roles.
+            // El MERGE por JDBC no pasa por Hibernate, así que la caché de entidades tampoco se entera
+            identityCache.clear();
+            entityCache.evictAll();
+        }
+
+        long rejected = rows - imported - duplicates; // inválidas, mal formadas o rechazadas por la base
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Imported {} {} in {} ms ({} rows, {} duplicates, {} rejected)",
+                imported, kind.name().toLowerCase(Locale.ROOT), millis, rows, duplicates, rejected);
+        return new ImportReport(kind.name().toLowerCase(Locale.ROOT), rows, imported, duplicates, rejected, millis,
+                errors, errors.size() < duplicates + rejected);
+    }
+
+    // Devuelve las filas escritas; las que la base rechaza van al reporte
+    private long flush(Kind kind, List<PendingRow> batch, List<RowError> errors) {
+        if (batch.isEmpty()) return 0;
+        List<PendingRow> pending = List.copyOf(batch);
+        batch.clear();
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        for (PendingRow row : pending) { // la clave (primer parámetro) entra al filtro antes del MERGE
+            String key = (String) row.values()[0];
+            switch (kind) {
+                case CUSTOMERS -> identityFilter.addCustomer(key);
+                case TRAINERS -> identityFilter.addTrainer(key);
+                case IDENTITIES -> identityFilter.addDni(key);
+            }
+            rows.add(row.values());
+        }
+        try {
+            tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(kind.upsertSql, rows));
+            return rows.size();
+        } catch (DataAccessException batchFailure) {
+            // El lote se revirtió entero: fila a fila para quedarse con las válidas y localizar las culpables
+            long written = 0;
+            for (PendingRow row : pending) {
+                try {
+                    tx.executeWithoutResult(status -> jdbcTemplate.update(kind.upsertSql, row.values()));
+                    written++;
+                } catch (DataAccessException e) {
+                    addError(errors, new RowError(row.line(), (String) row.values()[0],
+                            "Rejected by the database: " + e.getMostSpecificCause().getMessage()));
+                }
+            }
+            return written;
+        }
+    }
+
+    // Valida con los mismos DTO que la API y devuelve los parámetros del MERGE
+    private Object[] toValues(Kind kind, Map<String, String> f) {
+        return switch (kind) {
+            case CUSTOMERS -> {
+                var dto = validate(new CustomerDto(trim(f.get("email")), trim(f.get("name")), parseAge(f.get("age"))));
+                yield new Object[] {normalize(dto.email()), dto.name(), dto.age()};
+            }
+            case TRAINERS -> {
+                var dto = validate(new TrainerDto(trim(f.get("email")), trim(f.get("name")), parseAge(f.get("age")),
+                        trim(f.get("specialty"))));
+                yield new Object[] {normalize(dto.email()), dto.name(), dto.age(), dto.specialty()};
+            }
+            case IDENTITIES -> {
+                var dto = validate(new IdentityLinkRequest(trim(f.get("dni")), trim(f.get("email"))));
+                yield new Object[] {normalize(dto.dni()), normalize(dto.email())};
+            }
+        };
+    }
+
+    private <T> T validate(T dto) {
+        Set<ConstraintViolation<T>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            StringBuilder sb = new StringBuilder();
+            for (ConstraintViolation<T> v : violations) {
+                if (!sb.isEmpty()) sb.append("; ");
+                sb.append(v.getPropertyPath()).append(": ").append(v.getMessage());
+            }
+            throw new IllegalArgumentException(sb.toString());
+        }
+        return dto;
+    }
+
+    private void addError(List<RowError> errors, RowError error) {
+        if (errors.size() < maxReportedErrors) errors.add(error);
+    }
+
+    private Iterator<Map.Entry<Long, Map<String, String>>> csvRows(BufferedReader reader) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) return java.util.Collections.emptyIterator();
+        List<String> header = parseCsvLine(stripBom(headerLine)).stream()
+                .map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+        return new LineIterator(reader, 1) {
+            @Override
+            Map<String, String> parse(String line) {
+                List<String> cells = parseCsvLine(line);
+                Map<String, String> row = new LinkedHashMap<>();
+                for (int i = 0; i < header.size() && i < cells.size(); i++) row.put(header.get(i), cells.get(i));
+                return row;
+            }
+        };
+    }
+
+    private Iterator<Map.Entry<Long, Map<String, String>>> ndjsonRows(BufferedReader reader) {
+        return new LineIterator(reader, 0) {
+            @Override
+            Map<String, String> parse(String line) {
+                Map<String, String> row = new LinkedHashMap<>();
+                try {
+                    JsonNode node = mapper.readTree(stripBom(line));
+                    node.properties().forEach(e -> row.put(e.getKey().toLowerCase(Locale.ROOT),
+                            e.getValue().isNull() ? null : e.getValue().asText()));
+                } catch (IOException | RuntimeException e) {
+                    row.put(MALFORMED, "Malformed JSON");
+                }
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Itera las líneas no vacías con su número (1 = primera línea del archivo).
+     * Una fila que no se puede parsear llega con la clave {@link #MALFORMED}.
+     */
+    private abstract static class LineIterator implements Iterator<Map.Entry<Long, Map<String, String>>> {
+        private final BufferedReader reader;
+        private long lineNumber;
+        private String nextLine;
+
+        LineIterator(BufferedReader reader, long linesConsumed) {
+            this.reader = reader;
+            this.lineNumber = linesConsumed;
+        }
+
+        abstract Map<String, String> parse(String line);
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextLine == null) {
+                    String line = reader.readLine();
+                    if (line == null) return false;
+                    lineNumber++;
+                    if (!line.isBlank()) nextLine = line;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Map.Entry<Long, Map<String, String>> next() {
+            if (!hasNext()) throw new java.util.NoSuchElementException();
+            String line = nextLine;
+            nextLine = null;
+            return Map.entry(lineNumber, parse(line));
+        }
+    }
+
+    // CSV de una línea por registro: comas, comillas dobles y "" como escape
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static int parseAge(String value) {
+        if (value == null || value.isBlank()) return 0;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("age: must be an integer");
+        }
+    }
+
+    private static String stripBom(String s) {
+        return (!s.isEmpty() && s.charAt(0) == '\uFEFF') ? s.substring(1) : s;
+    }
+
+    private static String trim(String s) { return s == null ? null : s.trim(); }
+
+    private static String normalize(String s) { return s == null ? null : s.trim().toLowerCase(); }
+}
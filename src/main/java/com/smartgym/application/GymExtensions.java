@@ -3,14 +3,20 @@ package com.smartgym.application;
 import com.smartgym.domain.AttendanceRecord;
 import com.smartgym.domain.PaymentMethod;
 import com.smartgym.domain.ProgressRecord;
+import com.smartgym.domain.ProgressSummary;
 import com.smartgym.domain.Routine;
 import com.smartgym.model.Customer;
-import com.smartgym.model.Trainer;
 import com.smartgym.repository.AttendanceRecordRepository;
 import com.smartgym.repository.ProgressRecordRepository;
+import com.smartgym.repository.ProgressSummaryRepository;
 import com.smartgym.repository.RoutineRepository;
 import com.smartgym.repository.IdentityLinkRepository;
+import com.smartgym.service.KnownIdentityFilter;
+import com.smartgym.service.ResolvedIdentityCache;
+import com.smartgym.service.ResolvedIdentityCache.ResolvedIdentity;
 import com.smartgym.service.SmartGymService;
+import com.smartgym.service.TransactionHooks;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,34 +26,59 @@ import java.util.*;
 
 @Component
 public class GymExtensions {
+    static final int MAX_ROUTINE_PAGE = 200;
 
     private final SmartGymService core;
     private final RoutineRepository routineRepository;
     private final ProgressRecordRepository progressRepository;
+    private final ProgressSummaryRepository progressSummaryRepository;
     private final AttendanceRecordRepository attendanceRepository;
     private final IdentityLinkRepository identityLinkRepository;
+    private final ResolvedIdentityCache identityCache;
+    private final AttendanceIngestor attendanceIngestor;
+    private final OccupancyTracker occupancy;
+    private final VisitSessionizer visits;
+    private final ActiveRoutineCache routineCache;
+    private final KnownIdentityFilter identityFilter;
 
     public GymExtensions(SmartGymService core,
                          RoutineRepository routineRepository,
                          ProgressRecordRepository progressRepository,
+                         ProgressSummaryRepository progressSummaryRepository,
                          AttendanceRecordRepository attendanceRepository,
-                         IdentityLinkRepository identityLinkRepository) {
+                         IdentityLinkRepository identityLinkRepository,
+                         ResolvedIdentityCache identityCache,
+                         AttendanceIngestor attendanceIngestor,
+                         OccupancyTracker occupancy,
+                         VisitSessionizer visits,
+                         ActiveRoutineCache routineCache,
+                         KnownIdentityFilter identityFilter) {
         this.core = core;
         this.routineRepository = routineRepository;
         this.progressRepository = progressRepository;
+        this.progressSummaryRepository = progressSummaryRepository;
         this.attendanceRepository = attendanceRepository;
         this.identityLinkRepository = identityLinkRepository;
+        this.identityCache = identityCache;
+        this.attendanceIngestor = attendanceIngestor;
+        this.occupancy = occupancy;
+        this.visits = visits;
+        this.routineCache = routineCache;
+        this.identityFilter = identityFilter;
     }
 
     @Transactional
     public void registerCustomerIdentity(String dni, String email) {
         var key = normalize(dni);
         var value = normalize(email);
+        identityFilter.addDni(key); // antes del insert, ver KnownIdentityFilter
         identityLinkRepository.findById(key)
                 .ifPresentOrElse(
                         il -> { il.setEmail(value); },
                         () -> identityLinkRepository.save(new com.smartgym.domain.IdentityLink(key, value))
                 );
+        identityCache.invalidateDni(key);
+        TransactionHooks.afterCommit(() -> identityCache.invalidateDni(key)); // descarta el put de una lectura en paralelo del valor viejo
     }
 
     @Transactional
@@ -57,7 +88,9 @@ public class GymExtensions {
     }
 
     public Optional<String> emailByDni(String dni) {
-        return identityLinkRepository.findById(normalize(dni)).map(com.smartgym.domain.IdentityLink::getEmail);
+        String key = normalize(dni);
+        if (!identityFilter.mightBeDni(key)) return Optional.empty(); // DNI desconocido: sin consulta
+        return identityLinkRepository.findById(key).map(com.smartgym.domain.IdentityLink::getEmail);
     }
 
     @Transactional
@@ -77,38 +110,81 @@ public class GymExtensions {
         var customer = core.findCustomer(customerEmail)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found: " + customerEmail));
         Routine r = new Routine(customer, randomWeeklyPlan());
-        return routineRepository.save(r);
+        Routine saved = routineRepository.save(r);
+        String email = customer.getEmail();
+        routineCache.invalidate(email);
+        TransactionHooks.afterCommit(() -> routineCache.invalidate(email)); // descarta el put de una lectura concurrente de la rutina anterior
+        return saved;
     }
 
-    public List<Routine> routineHistory(String customerEmail) {
-        return routineRepository.findByCustomerEmailOrderByCreatedAtAsc(normalize(customerEmail));
+    /**
+     * Página del historial de rutinas: las {@code limit} más recientes anteriores a {@code beforeId},
+     * en orden cronológico (la última de la primera página es la activa). Dos consultas por página.
+     */
+    @Transactional(readOnly = true)
+    public List<RoutinePlan> routineHistory(String customerEmail, Long beforeId, int limit) {
+        if (limit < 1 || limit > MAX_ROUTINE_PAGE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_ROUTINE_PAGE + ".");
+        }
+        String email = normalize(customerEmail);
+        List<Long> ids = (beforeId == null)
+                ? routineRepository.findHistoryIds(email, Limit.of(limit))
+                : routineRepository.findHistoryIdsBefore(email, beforeId, Limit.of(limit));
+        if (ids.isEmpty()) return List.of();
+        return routineRepository.findWithPlanByIdIn(ids).stream().map(RoutinePlan::of).toList();
     }
 
     @Transactional(readOnly = true)
-    public Optional<Routine> activeRoutine(String customerEmail) {
-        return routineRepository.findFirstByCustomerEmailOrderByCreatedAtDesc(normalize(customerEmail));
+    public Optional<RoutinePlan> activeRoutine(String customerEmail) {
+        String email = normalize(customerEmail);
+        RoutinePlan cached = routineCache.get(email);
+        if (cached != null) return Optional.of(cached);
+        long stamp = routineCache.stamp(email);
+        Optional<RoutinePlan> loaded = routineRepository.findActiveWithPlan(email).map(RoutinePlan::of);
+        loaded.ifPresent(plan -> routineCache.put(email, plan, stamp));
+        return loaded;
     }
 
     @Transactional
     public String accessByDni(String dni) {
         String key = normalize(dni);
-        String email = emailByDni(key).orElse(null);
-        if (email == null) throw new IllegalArgumentException("DNI not linked");
+        ResolvedIdentity identity = identityCache.get(key);
+        if (identity == null) {
+            long stamp = identityCache.stamp(key);
+            identity = resolveIdentity(key);
+            identityCache.put(key, identity, stamp);
+        }
 
-        var roleOpt =
-                core.findCustomer(email).map(c -> AttendanceRecord.Role.CUSTOMER)
-                        .or(() -> core.findTrainer(email).map(t -> AttendanceRecord.Role.TRAINER));
+        java.time.LocalDateTime at;
+        if (attendanceIngestor.isAsync()) {
+            at = java.time.LocalDateTime.now();
+            attendanceIngestor.submit(identity.email(), identity.role(), at);
+        } else {
+            at = attendanceRepository.save(new AttendanceRecord(identity.email(), identity.role())).getTimestamp();
+        }
+        String email = identity.email();
+        TransactionHooks.afterCommit(() -> {
+            occupancy.record(at);
+            visits.record(email, at);
+        });
 
-        if (roleOpt.isEmpty()) throw new IllegalArgumentException("Identity not recognized for the linked email");
-        var role = roleOpt.get();
+        return "Welcome " + identity.displayName() + "! Access recorded for " + identity.email() + ".";
+    }
 
-        attendanceRepository.save(new AttendanceRecord(email, role));
+    // Camino lento: DNI → email → cliente o entrenador, una consulta por paso
+    private ResolvedIdentity resolveIdentity(String dni) {
+        String email = emailByDni(dni).orElse(null);
+        if (email == null) throw new IllegalArgumentException("DNI not linked");
 
-        String name = (role == AttendanceRecord.Role.CUSTOMER)
-                ? core.findCustomer(email).map(Customer::getName).orElse("Customer")
-                : core.findTrainer(email).map(Trainer::getName).orElse("Trainer");
+        Optional<ResolvedIdentity> resolved = core.findCustomer(email)
+                .map(c -> new ResolvedIdentity(email, AttendanceRecord.Role.CUSTOMER, nameOr(c.getName(), "Customer")))
+                .or(() -> core.findTrainer(email)
+                        .map(t -> new ResolvedIdentity(email, AttendanceRecord.Role.TRAINER, nameOr(t.getName(), "Trainer"))));
+        return resolved.orElseThrow(() -> new IllegalArgumentException("Identity not recognized for the linked email"));
+    }
 
-        return "Welcome " + name + "! Access recorded for " + email + ".";
+    private static String nameOr(String name, String fallback) {
+        return (name == null) ? fallback : name;
     }
 
     @Transactional(readOnly = true)
@@ -117,11 +193,22 @@ public class GymExtensions {
     }
 
     @Transactional
-    public void addProgressByDni(String dni, double weightKg, double bodyFatPct, double musclePct) {
+    public ProgressRecord addProgressByDni(String dni, double weightKg, double bodyFatPct, double musclePct) {
         String email = emailByDni(dni).orElseThrow(() -> new IllegalArgumentException("DNI not linked"));
         var customer = core.findCustomer(email)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found: " + email));
-        progressRepository.save(new ProgressRecord(customer, LocalDate.now(), weightKg, bodyFatPct, musclePct));
+        var saved = progressRepository.save(new ProgressRecord(customer, LocalDate.now(), weightKg, bodyFatPct, musclePct));
+        progressRepository.flush(); // un duplicado del día falla aquí, antes de tocar los agregados
+
+        var existing = progressSummaryRepository.findForUpdate(customer.getEmail());
+        if (existing.isPresent()) {
+            existing.get().add(saved); // entidad gestionada: se actualiza al commit
+        } else {
+            var summary = new ProgressSummary(customer.getEmail());
+            summary.add(saved);
+            progressSummaryRepository.save(summary);
+        }
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -130,9 +217,34 @@ public class GymExtensions {
         return progressRepository.findByCustomerEmailOrderByDateAsc(normalize(email));
     }
 
-    private Map<DayOfWeek, String> randomWeeklyPlan() {
+    /**
+     * Últimos {@code limit} registros en orden cronológico.
+     */
+    @Transactional(readOnly = true)
+    public List<ProgressRecord> recentProgressByDni(String dni, int limit) {
+        String email = emailByDni(dni).orElseThrow(() -> new IllegalArgumentException("DNI not linked"));
+        var latest = new ArrayList<>(progressRepository.findByCustomerEmailOrderByDateDesc(normalize(email), Limit.of(limit)));
+        Collections.reverse(latest);
+        return latest;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProgressRecord> progressBetween(String dni, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("End date must not be before start date.");
+        String email = emailByDni(dni).orElseThrow(() -> new IllegalArgumentException("DNI not linked"));
+        return progressRepository.findByCustomerEmailAndDateBetweenOrderByDateAsc(normalize(email), from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public ProgressSummary progressSummaryByDni(String dni) {
+        String email = normalize(emailByDni(dni).orElseThrow(() -> new IllegalArgumentException("DNI not linked")));
+        return progressSummaryRepository.findById(email).orElseGet(() -> new ProgressSummary(email));
+    }
+
+    // También lo usa RoutineBulkAssignmentJob desde varios hilos: sin Random compartido
+    static Map<DayOfWeek, String> randomWeeklyPlan() {
         List<String> blocks = new ArrayList<>(List.of("Legs", "Chest", "Back", "Shoulders", "Arms", "Cardio"));
-        Collections.shuffle(blocks);
+        Collections.shuffle(blocks, java.util.concurrent.ThreadLocalRandom.current());
         EnumMap<DayOfWeek, String> plan = new EnumMap<>(DayOfWeek.class);
         plan.put(DayOfWeek.MONDAY,    blocks.get(0));
         plan.put(DayOfWeek.TUESDAY,   blocks.get(1));
@@ -0,0 +1,59 @@
+package com.smartgym.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Importación desde línea de comandos:
+ * <pre>
+ * java -jar smartgym.jar --smartgym.import.file=members.csv --smartgym.import.kind=customers
+ * </pre>
+ * Con {@code --smartgym.import.exit=true} la aplicación termina al acabar (código 1 si hubo filas rechazadas).
+ */
+@Component
+@ConditionalOnProperty(name = "smartgym.import.file")
+public class ImportCommandLineRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(ImportCommandLineRunner.class);
+
+    private final BulkImporter importer;
+    private final Environment env;
+    private final ConfigurableApplicationContext context;
+
+    public ImportCommandLineRunner(BulkImporter importer, Environment env, ConfigurableApplicationContext context) {
+        this.importer = importer;
+        this.env = env;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path file = Path.of(env.getRequiredProperty("smartgym.import.file"));
+        var kind = BulkImporter.Kind.parse(env.getRequiredProperty("smartgym.import.kind"));
+        var format = BulkImporter.Format.fromFileName(file.getFileName().toString());
+
+        BulkImporter.ImportReport report;
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            report = importer.importFrom(kind, format, reader);
+        }
+        report.errors().forEach(e -> log.warn("{}:{} [{}] {}", file.getFileName(), e.line(), e.key(), e.message()));
+        log.info("Import of {}: {} rows, {} imported, {} duplicates, {} rejected in {} ms",
+                file, report.rowsRead(), report.imported(), report.duplicates(), report.rejected(), report.millis());
+
+        if (env.getProperty("smartgym.import.exit", Boolean.class, false)) {
+            int code = report.rejected() > 0 ? 1 : 0;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.smartgym.application;
+
+import com.smartgym.domain.AttendanceHourlyRollup;
+import com.smartgym.repository.AttendanceHourlyRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contadores de ocupación en memoria alimentados por {@code accessByDni}.
+ * <p>
+ * Dos anillos de arrays primitivos: por minuto (últimas 24 h) y por hora (últimos 40 días).
+ * Cada cubo guarda el número de minuto/hora al que pertenece, así un cubo viejo se
+ * recicla al primer acceso sin recorrer nada. Las horas modificadas se persisten como
+ * rollups en {@code attendance_hourly_rollups} para histogramas más antiguos y reinicios.
+ * <p>
+ * Las personas dentro salen del emparejamiento de {@link VisitSessionizer}: cada minuto guarda
+ * además las entradas abiertas (sin salida) que empezaron en él, y una entrada deja de contar al
+ * cerrarse su visita o al superar {@code max-visit-minutes}.
+ */
+@Component
+public class OccupancyTracker implements SmartLifecycle {
+    static final int MINUTE_SLOTS = 24 * 60;
+    static final int HOUR_SLOTS = 40 * 24;
+    static final int MAX_HISTOGRAM_HOURS = 62 * 24;
+    private static final String UPSERT_ROLLUP_SQL =
+            "merge into attendance_hourly_rollups (hour_start, swipes) key (hour_start) values (?, ?)";
+    private static final String REBUILD_ROLLUPS_SQL =
+            "merge into attendance_hourly_rollups (hour_start, swipes) key (hour_start) " +
+            "select date_trunc('HOUR', timestamp), count(*) from attendance_records " +
+            "where timestamp >= ? group by date_trunc('HOUR', timestamp)";
+
+    private final int windowMinutes;
+    private final int maxVisitMinutes;
+    private final JdbcTemplate jdbcTemplate;
+    private final AttendanceHourlyRollupRepository rollupRepository;
+
+    private final long[] minuteIds = new long[MINUTE_SLOTS];
+    private final int[] minuteCounts = new int[MINUTE_SLOTS];
+    private final int[] openEntries = new int[MINUTE_SLOTS];
+    private final long[] hourIds = new long[HOUR_SLOTS];
+    private final long[] hourCounts = new long[HOUR_SLOTS];
+    private final Set<Long> dirtyHours = new HashSet<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean running;
+
+    public OccupancyTracker(@Value("${smartgym.occupancy.window-minutes:90}") int windowMinutes,
+                            @Value("${smartgym.visits.max-visit-minutes:240}") int maxVisitMinutes,
+                            JdbcTemplate jdbcTemplate,
+                            AttendanceHourlyRollupRepository rollupRepository) {
+        if (windowMinutes < 1 || windowMinutes > MINUTE_SLOTS) {
+            throw new IllegalArgumentException("Occupancy window must be between 1 and " + MINUTE_SLOTS + " minutes.");
+        }
+        if (maxVisitMinutes < 1 || maxVisitMinutes > MINUTE_SLOTS) {
+            throw new IllegalArgumentException("max-visit-minutes must be between 1 and " + MINUTE_SLOTS + ".");
+        }
+        this.windowMinutes = windowMinutes;
+        this.maxVisitMinutes = maxVisitMinutes;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupRepository = rollupRepository;
+        Arrays.fill(minuteIds, -1);
+        Arrays.fill(hourIds, -1);
+    }
+
+    public int windowMinutes() { return windowMinutes; }
+
+    public void record(LocalDateTime at) {
+        long minute = minuteOf(at);
+        long hour = minute / 60;
+        lock.lock();
+        try {
+            minuteCounts[minuteSlot(minute)]++;
+            int h = (int) (hour % HOUR_SLOTS);
+            if (hourIds[h] != hour) {
+                hourIds[h] = hour;
+                hourCounts[h] = 0;
+            }
+            hourCounts[h]++;
+            dirtyHours.add(hour);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mueve la entrada abierta de un miembro (llamado por {@link VisitSessionizer}); {@code null}
+     * significa sin entrada abierta. Una entrada anterior a las últimas 24 h ya no cuenta.
+     */
+    public void moveOpenEntry(LocalDateTime from, LocalDateTime to) {
+        if (Objects.equals(from, to)) return;
+        lock.lock();
+        try {
+            if (from != null) {
+                long minute = minuteOf(from);
+                int m = Math.floorMod(minute, MINUTE_SLOTS);
+                if (minuteIds[m] == minute) openEntries[m]--;
+            }
+            if (to != null) openEntries[minuteSlot(minuteOf(to))]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Personas dentro: entradas sin salida de los últimos {@code max-visit-minutes}.
+     */
+    public long currentOccupancy() { return openEntriesInLastMinutes(LocalDateTime.now(), maxVisitMinutes); }
+
+    /** Accesos (entradas y salidas) en los últimos {@code windowMinutes}. */
+    public long recentSwipes() { return swipesInLastMinutes(LocalDateTime.now(), windowMinutes); }
+
+    long openEntriesInLastMinutes(LocalDateTime now, int minutes) {
+        long current = minuteOf(now);
+        long total = 0;
+        lock.lock();
+        try {
+            for (long minute = current - minutes + 1; minute <= current; minute++) {
+                int m = Math.floorMod(minute, MINUTE_SLOTS);
+                if (minuteIds[m] == minute) total += openEntries[m];
+            }
+        } finally {
+            lock.unlock();
+        }
+        return total;
+    }
+
+    long swipesInLastMinutes(LocalDateTime now, int minutes) {
+        long current = minuteOf(now);
+        long total = 0;
+        lock.lock();
+        try {
+            for (long minute = current - minutes + 1; minute <= current; minute++) {
+                int m = Math.floorMod(minute, MINUTE_SLOTS);
+                if (minuteIds[m] == minute) total += minuteCounts[m];
+            }
+        } finally {
+            lock.unlock();
+        }
+        return total;
+    }
+
+    public Map<LocalDateTime, Long> lastHourByMinute() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        Map<LocalDateTime, Long> result = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            for (int back = 59; back >= 0; back--) {
+                LocalDateTime at = now.minusMinutes(back);
+                long minute = minuteOf(at);
+                int m = (int) (minute % MINUTE_SLOTS);
+                result.put(at, minuteIds[m] == minute ? minuteCounts[m] : 0L);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Accesos por hora en [from, to]. Las horas cubiertas por el anillo salen de memoria;
+     * las anteriores, de un rango sobre la PK de los rollups.
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDateTime, Long> hourly(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS);
+        if (end.isBefore(start)) throw new IllegalArgumentException("End must not be before start.");
+        if (ChronoUnit.HOURS.between(start, end) >= MAX_HISTOGRAM_HOURS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_HISTOGRAM_HOURS + " hours.");
+        }
+        Map<LocalDateTime, Long> result = new LinkedHashMap<>();
+        for (LocalDateTime h = start; !h.isAfter(end); h = h.plusHours(1)) result.put(h, 0L);
+
+        long oldestInRing = minuteOf(LocalDateTime.now()) / 60 - HOUR_SLOTS + 1;
+        if (minuteOf(start) / 60 < oldestInRing) {
+            for (AttendanceHourlyRollup r : rollupRepository.findByHourStartBetweenOrderByHourStartAsc(start, end)) {
+                result.put(r.getHourStart(), r.getSwipes());
+            }
+        }
+        lock.lock();
+        try {
+            for (Map.Entry<LocalDateTime, Long> e : result.entrySet()) {
+                long hour = minuteOf(e.getKey()) / 60;
+                int h = Math.floorMod(hour, HOUR_SLOTS);
+                if (hourIds[h] == hour) e.setValue(hourCounts[h]);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${smartgym.occupancy.flush-interval-ms:60000}")
+    public void flushRollups() {
+        List<Object[]> rows = new ArrayList<>();
+        lock.lock();
+        try {
+            for (long hour : dirtyHours) {
+                int h = (int) (hour % HOUR_SLOTS);
+                if (hourIds[h] == hour) {
+                    rows.add(new Object[] {Timestamp.valueOf(hourStart(hour)), hourCounts[h]});
+                }
+            }
+            dirtyHours.clear();
+        } finally {
+            lock.unlock();
+        }
+        if (!rows.isEmpty()) jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, rows);
+    }
+
+    /**
+     * Arranque: los rollups de las últimas 24 h se recalculan desde {@code attendance_records}
+     * (cubre horas no volcadas antes de un reinicio; la primera vez se genera todo el histórico).
+     * Después se cargan los anillos: horas desde los rollups, minutos desde el índice por timestamp.
+     * Corre como {@link SmartLifecycle} antes de que el servidor web acepte accesos; los contadores
+     * por minuto se rehacen desde cero para no contar dos veces un acceso ya registrado.
+     */
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime currentHour = now.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime ringStart = currentHour.minusHours(HOUR_SLOTS - 1);
+        LocalDateTime minutesStart = now.truncatedTo(ChronoUnit.MINUTES).minusMinutes(MINUTE_SLOTS - 1);
+
+        Integer rollups = jdbcTemplate.queryForObject("select count(*) from attendance_hourly_rollups", Integer.class);
+        LocalDateTime rebuildFrom = (rollups != null && rollups == 0)
+                ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : minutesStart.truncatedTo(ChronoUnit.HOURS);
+        jdbcTemplate.update(REBUILD_ROLLUPS_SQL, Timestamp.valueOf(rebuildFrom));
+
+        lock.lock();
+        try {
+            for (AttendanceHourlyRollup r : rollupRepository.findByHourStartBetweenOrderByHourStartAsc(ringStart, currentHour)) {
+                setHour(minuteOf(r.getHourStart()) / 60, r.getSwipes());
+            }
+            Arrays.fill(minuteCounts, 0); // las entradas abiertas son de VisitSessionizer: se conservan
+            jdbcTemplate.query("select timestamp from attendance_records where timestamp >= ?",
+                    rs -> { minuteCounts[minuteSlot(minuteOf(rs.getTimestamp(1).toLocalDateTime()))]++; },
+                    Timestamp.valueOf(minutesStart));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        warmUp();
+        running = true;
+    }
+
+    @Override
+    public void stop() { running = false; }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Tras la reposición del WAL (AttendanceIngestor, fase 0) y antes que el servidor web
+    @Override
+    public int getPhase() { return 1; }
+
+    // Con el lock tomado: cubo del minuto, reciclado si pertenecía a otro
+    private int minuteSlot(long minute) {
+        int m = (int) (minute % MINUTE_SLOTS);
+        if (minuteIds[m] != minute) {
+            minuteIds[m] = minute;
+            minuteCounts[m] = 0;
+            openEntries[m] = 0;
+        }
+        return m;
+    }
+
+    private void setHour(long hour, long swipes) {
+        int h = (int) (hour % HOUR_SLOTS);
+        hourIds[h] = hour;
+        hourCounts[h] = swipes;
+    }
+
+    private static long minuteOf(LocalDateTime at) {
+        return at.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime hourStart(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * 3600, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,153 @@
+package com.smartgym.application;
+
+import com.smartgym.domain.ProgressRecord;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Reducciones de una serie de progreso ordenada por fecha: agregación por semana/mes y
+ * muestreo LTTB (Largest-Triangle-Three-Buckets) a N puntos para gráficos.
+ */
+public final class ProgressSeries {
+
+    public enum Bucket {
+        DAY, WEEK, MONTH;
+
+        LocalDate startOf(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate next(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+            };
+        }
+
+        public static Bucket parse(String value) {
+            try {
+                return Bucket.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("bucket must be one of day, week, month");
+            }
+        }
+    }
+
+    public enum Metric {
+        WEIGHT(ProgressRecord::getWeightKg),
+        BODY_FAT(ProgressRecord::getBodyFatPct),
+        MUSCLE(ProgressRecord::getMusclePct);
+
+        final ToDoubleFunction<ProgressRecord> value;
+
+        Metric(ToDoubleFunction<ProgressRecord> value) { this.value = value; }
+
+        public static Metric parse(String value) {
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "weight", "weightkg" -> WEIGHT;
+                case "bodyfat", "bodyfatpct", "body_fat" -> BODY_FAT;
+                case "muscle", "musclepct" -> MUSCLE;
+                default -> throw new IllegalArgumentException("metric must be one of weight, bodyFat, muscle");
+            };
+        }
+    }
+
+    public record Stat(double avg, double min, double max) {}
+
+    public record BucketStats(LocalDate start, LocalDate end, int count, Stat weightKg, Stat bodyFatPct, Stat musclePct) {}
+
+    private ProgressSeries() { }
+
+    /**
+     * Agrupa en cubos consecutivos; los cubos sin registros se omiten.
+     * {@code end} es el último día del cubo (inclusive).
+     */
+    public static List<BucketStats> bucket(List<ProgressRecord> series, Bucket unit) {
+        List<BucketStats> result = new ArrayList<>();
+        int i = 0;
+        while (i < series.size()) {
+            LocalDate start = unit.startOf(series.get(i).getDate());
+            LocalDate next = unit.next(start);
+            int from = i;
+            while (i < series.size() && series.get(i).getDate().isBefore(next)) i++;
+            List<ProgressRecord> group = series.subList(from, i);
+            result.add(new BucketStats(start, next.minusDays(1), group.size(),
+                    stat(group, Metric.WEIGHT), stat(group, Metric.BODY_FAT), stat(group, Metric.MUSCLE)));
+        }
+        return result;
+    }
+
+    /**
+     * Reduce la serie a {@code threshold} puntos conservando la forma de la métrica elegida.
+     * Devuelve registros originales (primero y último incluidos); con pocos puntos la serie va entera.
+     */
+    public static List<ProgressRecord> lttb(List<ProgressRecord> series, int threshold, Metric metric) {
+        if (threshold < 3) throw new IllegalArgumentException("points must be at least 3");
+        int n = series.size();
+        if (threshold >= n) return series;
+        LocalDate origin = series.get(0).getDate();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int k = 0; k < n; k++) {
+            x[k] = ChronoUnit.DAYS.between(origin, series.get(k).getDate());
+            y[k] = metric.value.applyAsDouble(series.get(k));
+        }
+
+        List<ProgressRecord> sampled = new ArrayList<>(threshold);
+        sampled.add(series.get(0));
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Promedio del cubo siguiente: tercer vértice del triángulo
+            int nextStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * every) + 1, n);
+            double avgX = 0, avgY = 0;
+            for (int k = nextStart; k < nextEnd; k++) {
+                avgX += x[k];
+                avgY += y[k];
+            }
+            int span = Math.max(nextEnd - nextStart, 1);
+            avgX /= span;
+            avgY /= span;
+
+            int start = (int) Math.floor(bucket * every) + 1;
+            int end = (int) Math.floor((bucket + 1) * every) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int k = start; k < end; k++) {
+                double area = Math.abs((x[a] - avgX) * (y[k] - y[a]) - (x[a] - x[k]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = k;
+                }
+            }
+            sampled.add(series.get(chosen));
+            a = chosen;
+        }
+        sampled.add(series.get(n - 1));
+        return sampled;
+    }
+
+    private static Stat stat(List<ProgressRecord> group, Metric metric) {
+        double sum = 0, min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+        for (ProgressRecord r : group) {
+            double v = metric.value.applyAsDouble(r);
+            sum += v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        return new Stat(sum / group.size(), min, max);
+    }
+}
@@ -0,0 +1,75 @@
+package com.smartgym.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.smartgym.service.DataMigrations;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Genera los agregados de {@code progress_summaries} para clientes con progreso previo a la tabla.
+ * <p>
+ * Corre una única vez (marca en {@code data_migrations}) como {@link SmartLifecycle} de fase
+ * temprana: termina antes de que el servidor web acepte progreso nuevo, que ya mantiene su fila
+ * al insertar. {@link #backfill()} es idempotente: solo inserta clientes que aún no tienen fila.
+ */
+@Component
+public class ProgressSummaryMigration implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ProgressSummaryMigration.class);
+
+    private static final String BACKFILL_SQL =
+            "insert into progress_summaries (customer_email, records, weight_sum, weight_min, weight_max, " +
+            "body_fat_sum, body_fat_min, body_fat_max, muscle_sum, muscle_min, muscle_max, " +
+            "latest_date, latest_weight_kg, latest_body_fat_pct, latest_muscle_pct) " +
+            "select a.customer_email, a.n, a.ws, a.wmin, a.wmax, a.bs, a.bmin, a.bmax, a.ms, a.mmin, a.mmax, " +
+            "l.date, l.weight_kg, l.body_fat_pct, l.muscle_pct " +
+            "from (select customer_email, count(*) n, " +
+            "sum(weight_kg) ws, min(weight_kg) wmin, max(weight_kg) wmax, " +
+            "sum(body_fat_pct) bs, min(body_fat_pct) bmin, max(body_fat_pct) bmax, " +
+            "sum(muscle_pct) ms, min(muscle_pct) mmin, max(muscle_pct) mmax, max(date) last_date " +
+            "from progress_records group by customer_email) a " +
+            "join progress_records l on l.customer_email = a.customer_email and l.date = a.last_date " +
+            "where not exists (select 1 from progress_summaries s where s.customer_email = a.customer_email)";
+
+    static final String MIGRATION = "progress-summaries";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private volatile boolean running;
+
+    public ProgressSummaryMigration(JdbcTemplate jdbcTemplate, TransactionTemplate tx) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = tx;
+    }
+
+    @Override
+    public void start() {
+        tx.executeWithoutResult(status -> {
+            if (DataMigrations.applied(jdbcTemplate, MIGRATION)) return;
+            backfill();
+            DataMigrations.markApplied(jdbcTemplate, MIGRATION);
+        });
+        running = true;
+    }
+
+    @Transactional
+    public void backfill() {
+        int rows = jdbcTemplate.update(BACKFILL_SQL);
+        if (rows > 0) {
+            log.info("Built progress summaries for {} customers", rows);
+        }
+    }
+
+    @Override
+    public void stop() { running = false; }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Antes que el servidor web (WebServerStartStopLifecycle)
+    @Override
+    public int getPhase() { return 0; }
+}
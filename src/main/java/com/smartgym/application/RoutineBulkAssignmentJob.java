@@ -0,0 +1,280 @@
+package com.smartgym.application;
+
+import com.smartgym.domain.RoutineAssignmentJob;
+import com.smartgym.repository.RoutineAssignmentJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reasigna rutinas aleatorias (mismo plan que {@code assignRandomRoutine}) a una cohorte completa.
+ * <p>
+ * Un coordinador recorre {@code customers} por email (keyset) en lotes y los reparte entre
+ * {@code workers} hilos como máximo (virtuales con {@code spring.threads.virtual.enabled}); cada
+ * lote inserta rutinas y planes con JDBC batch y avanza el progreso del job en la misma
+ * transacción. Las rutinas quedan marcadas con el id del job, por lo que reanudar solo procesa
+ * clientes sin rutina de ese job: nada se asigna dos veces.
+ */
+@Component
+public class RoutineBulkAssignmentJob {
+    private static final Logger log = LoggerFactory.getLogger(RoutineBulkAssignmentJob.class);
+    static final int MAX_CHUNK_SIZE = 5000;
+
+    private static final String PENDING_FILTER =
+            "not exists (select 1 from routines r where r.customer_email = c.email and r.assignment_job_id = ?)";
+    private static final String ACTIVE_FILTER =
+            "exists (select 1 from attendance_records a where a.email = c.email and a.timestamp >= ?)";
+    private static final String INSERT_ROUTINE_SQL =
+            "insert into routines (customer_email, created_at, assignment_job_id) values (?, ?, ?)";
+    private static final String INSERT_PLAN_SQL = "insert into routine_plan (routine_id, weekday, block) values (?, ?, ?)";
+    private static final String PROGRESS_SQL =
+            "update routine_assignment_jobs set processed = processed + ?, updated_at = ? where id = ?";
+
+    public record Progress(RoutineAssignmentJob job, double throughputPerSecond) {}
+
+    private final int defaultChunkSize;
+    private final int maxInFlight;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final RoutineAssignmentJobRepository jobRepository;
+    private final ActiveRoutineCache routineCache;
+    private final SimpleAsyncTaskExecutor workers;
+    private final SimpleAsyncTaskExecutor coordinator;
+    private final AtomicLong runningJob = new AtomicLong();
+
+    public RoutineBulkAssignmentJob(@Value("${smartgym.routine-bulk.workers:4}") int workerCount,
+                                    @Value("${smartgym.routine-bulk.chunk-size:500}") int defaultChunkSize,
+                                    JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate tx,
+                                    RoutineAssignmentJobRepository jobRepository,
+                                    ActiveRoutineCache routineCache,
+                                    Environment environment) {
+        this.defaultChunkSize = defaultChunkSize;
+        this.maxInFlight = workerCount * 2; // lotes leídos por adelantado, no toda la cohorte
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = tx;
+        this.jobRepository = jobRepository;
+        this.routineCache = routineCache;
+        // Un hilo por lote; el límite (que bloquea al coordinador) protege el pool de conexiones
+        boolean virtual = Threading.VIRTUAL.isActive(environment);
+        this.workers = new SimpleAsyncTaskExecutor("routine-bulk-");
+        this.workers.setVirtualThreads(virtual);
+        this.workers.setConcurrencyLimit(workerCount);
+        this.workers.setTaskTerminationTimeout(10_000);
+        this.coordinator = new SimpleAsyncTaskExecutor("routine-bulk-coordinator-");
+        this.coordinator.setVirtualThreads(virtual);
+        if (!virtual) {
+            workers.setDaemon(true);
+            coordinator.setDaemon(true);
+        }
+    }
+
+    // Un job RUNNING al arrancar quedó cortado por el reinicio: se marca para reanudarlo a mano
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterrupted() {
+        jdbcTemplate.update("update routine_assignment_jobs set status = ? where status = ?",
+                RoutineAssignmentJob.Status.INTERRUPTED.name(), RoutineAssignmentJob.Status.RUNNING.name());
+    }
+
+    public RoutineAssignmentJob start(LocalDate activeSince, Integer chunkSize) {
+        int size = (chunkSize == null) ? defaultChunkSize : chunkSize;
+        if (size < 1 || size > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + MAX_CHUNK_SIZE + ".");
+        }
+        if (!runningJob.compareAndSet(0, -1)) {
+            throw new IllegalStateException("A routine assignment job is already running");
+        }
+        try {
+            Long total = (activeSince == null)
+                    ? jdbcTemplate.queryForObject("select count(*) from customers", Long.class)
+                    : jdbcTemplate.queryForObject("select count(*) from customers c where " + ACTIVE_FILTER,
+                            Long.class, Timestamp.valueOf(activeSince.atStartOfDay()));
+            RoutineAssignmentJob job = jobRepository.save(new RoutineAssignmentJob(activeSince, size, total == null ? 0 : total));
+            launch(job);
+            return job;
+        } catch (RuntimeException e) {
+            runningJob.set(0);
+            throw e;
+        }
+    }
+
+    public RoutineAssignmentJob resume(long jobId) {
+        RoutineAssignmentJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Routine assignment job not found: " + jobId));
+        if (job.getStatus() == RoutineAssignmentJob.Status.COMPLETED) {
+            throw new IllegalStateException("Routine assignment job " + jobId + " is already completed");
+        }
+        if (!runningJob.compareAndSet(0, -1)) {
+            throw new IllegalStateException("A routine assignment job is already running");
+        }
+        try {
+            jdbcTemplate.update("update routine_assignment_jobs set status = ?, run_started_at = ?, " +
+                            "run_start_processed = processed, updated_at = ?, finished_at = null, error = null where id = ?",
+                    RoutineAssignmentJob.Status.RUNNING.name(), Timestamp.valueOf(LocalDateTime.now()),
+                    Timestamp.valueOf(LocalDateTime.now()), jobId);
+            job = jobRepository.findById(jobId).orElseThrow();
+            launch(job);
+            return job;
+        } catch (RuntimeException e) {
+            runningJob.set(0);
+            throw e;
+        }
+    }
+
+    public Progress progress(long jobId) {
+        RoutineAssignmentJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Routine assignment job not found: " + jobId));
+        LocalDateTime end = (job.getFinishedAt() != null) ? job.getFinishedAt() : job.getUpdatedAt();
+        long millis = Duration.between(job.getRunStartedAt(), end).toMillis();
+        long done = job.getProcessed() - job.getRunStartProcessed();
+        return new Progress(job, millis <= 0 ? 0 : done * 1000.0 / millis);
+    }
+
+    private void launch(RoutineAssignmentJob job) {
+        runningJob.set(job.getId());
+        coordinator.execute(() -> run(job));
+    }
+
+    private void run(RoutineAssignmentJob job) {
+        long jobId = job.getId();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong done = new AtomicLong();
+        long startNanos = System.nanoTime();
+        int chunks = 0;
+        try {
+            String cursor = "";
+            while (failure.get() == null) {
+                List<String> emails = nextChunk(jobId, job.getActiveSince(), cursor, job.getChunkSize());
+                if (emails.isEmpty()) break;
+                cursor = emails.get(emails.size() - 1);
+                inFlight.acquire();
+                workers.execute(() -> {
+                    try {
+                        assignChunk(jobId, emails);
+                        done.addAndGet(emails.size());
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                if (++chunks % 10 == 0) logProgress(jobId, done.get(), job.getTotal(), startNanos);
+            }
+            inFlight.acquire(maxInFlight); // espera a los lotes en curso
+            inFlight.release(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+        finish(jobId, failure.get());
+        logProgress(jobId, done.get(), job.getTotal(), startNanos);
+    }
+
+    private List<String> nextChunk(long jobId, LocalDate activeSince, String afterEmail, int limit) {
+        if (activeSince == null) {
+            return jdbcTemplate.queryForList("select c.email from customers c where c.email > ? and " + PENDING_FILTER +
+                    " order by c.email limit ?", String.class, afterEmail, jobId, limit);
+        }
+        return jdbcTemplate.queryForList("select c.email from customers c where c.email > ? and " + PENDING_FILTER +
+                        " and " + ACTIVE_FILTER + " order by c.email limit ?", String.class,
+                afterEmail, jobId, Timestamp.valueOf(activeSince.atStartOfDay()), limit);
+    }
+
+    // Un lote = una transacción: rutinas, planes y progreso del job se confirman juntos
+    private void assignChunk(long jobId, List<String> emails) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        tx.executeWithoutResult(status -> {
+            long[] ids = insertRoutines(jobId, emails, now);
+            List<Object[]> planRows = new ArrayList<>(ids.length * 6);
+            for (long id : ids) {
+                for (Map.Entry<DayOfWeek, String> e : GymExtensions.randomWeeklyPlan().entrySet()) {
+                    planRows.add(new Object[] {id, e.getKey().name(), e.getValue()});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_PLAN_SQL, planRows);
+            jdbcTemplate.update(PROGRESS_SQL, emails.size(), now, jobId);
+        });
+        emails.forEach(routineCache::invalidate);
+    }
+
+    private long[] insertRoutines(long jobId, List<String> emails, Timestamp now) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_ROUTINE_SQL, new String[] {"id"})) {
+                for (String email : emails) {
+                    ps.setString(1, email);
+                    ps.setTimestamp(2, now);
+                    ps.setLong(3, jobId);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                long[] ids = new long[emails.size()];
+                int k = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (k < ids.length && keys.next()) {
+                        ids[k++] = keys.getLong(1);
+                    }
+                }
+                // Sin un id por rutina los planes quedarían con routine_id = 0: se revierte el lote
+                if (k < ids.length) {
+                    throw new DataRetrievalFailureException(
+                            "Expected " + ids.length + " generated routine ids but the driver returned " + k);
+                }
+                return ids;
+            }
+        });
+    }
+
+    private void finish(long jobId, Throwable failure) {
+        try {
+            RoutineAssignmentJob.Status status = (failure == null)
+                    ? RoutineAssignmentJob.Status.COMPLETED : RoutineAssignmentJob.Status.FAILED;
+            String error = (failure == null) ? null : String.valueOf(failure.getMessage());
+            if (error != null && error.length() > 500) error = error.substring(0, 500);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.update("update routine_assignment_jobs set status = ?, finished_at = ?, updated_at = ?, error = ? where id = ?",
+                    status.name(), now, now, error, jobId);
+            if (failure != null) log.warn("Routine assignment job {} failed", jobId, failure);
+        } finally {
+            runningJob.set(0);
+        }
+    }
+
+    private void logProgress(long jobId, long done, long total, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        log.info("Routine assignment job {}: {} customers this run (cohort {}), {}/s",
+                jobId, done, total, seconds <= 0 ? 0 : Math.round(done / seconds));
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.close(); // espera hasta 10 s a los lotes en curso
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartgym.application;
+
+import com.smartgym.domain.Routine;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Vista inmutable de una rutina: plan por {@link DayOfWeek} y el mismo plan con claves en
+ * minúsculas tal como lo devuelve la API. Ambos mapas se construyen una sola vez.
+ */
+public record RoutinePlan(Long routineId, LocalDateTime createdAt,
+                          Map<DayOfWeek, String> byDay, Map<String, String> byDayLower) {
+
+    private static final String[] DAY_KEYS = new String[DayOfWeek.values().length];
+    static {
+        for (DayOfWeek d : DayOfWeek.values()) DAY_KEYS[d.ordinal()] = d.name().toLowerCase();
+    }
+
+    public static RoutinePlan of(Routine routine) {
+        EnumMap<DayOfWeek, String> plan = new EnumMap<>(DayOfWeek.class);
+        plan.putAll(routine.getPlan());
+        Map<String, String> lower = new LinkedHashMap<>();
+        plan.forEach((day, block) -> lower.put(DAY_KEYS[day.ordinal()], block));
+        return new RoutinePlan(routine.getId(), routine.getCreatedAt(),
+                Collections.unmodifiableMap(plan), Collections.unmodifiableMap(lower));
+    }
+
+    public String blockFor(DayOfWeek day) { return byDay.get(day); }
+
+    public static String key(DayOfWeek day) { return DAY_KEYS[day.ordinal()]; }
+}
@@ -0,0 +1,191 @@
+package com.smartgym.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Empareja accesos consecutivos de un miembro en visitas (entrada → salida) y mantiene
+ * sus estadísticas de forma incremental: cada acceso es una transición O(1) sobre el
+ * estado del miembro, sin releer su historial de asistencia.
+ * <p>
+ * Un acceso con una entrada abierta dentro de {@code max-visit-minutes} cierra la visita;
+ * si la entrada abierta ya expiró se cuenta como no emparejada y el acceso abre una nueva.
+ * Accesos a menos de {@code min-visit-seconds} de la entrada se ignoran (doble pasada).
+ * El estado vive en memoria y se vuelca a {@code member_visit_stats} periódicamente, junto con
+ * el último acceso incorporado de cada miembro ({@code last_swipe_at}): al arrancar se vuelven a
+ * aplicar los accesos posteriores, así no se pierden los de después del último volcado ni los
+ * que repone el WAL de la ingesta asíncrona.
+ */
+@Component
+public class VisitSessionizer implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(VisitSessionizer.class);
+    private static final String UPSERT_SQL =
+            "merge into member_visit_stats (email, visits, total_visit_seconds, unmatched_entries, " +
+            "last_visit_start, last_visit_end, open_entry_at, last_swipe_at) key (email) values (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Accesos de distintos miembros se confirman algo desordenados respecto a su timestamp
+    private static final Duration REPLAY_SKEW = Duration.ofMinutes(1);
+
+    public record VisitStats(String email, long visits, long totalVisitSeconds, long unmatchedEntries,
+                             LocalDateTime lastVisitStart, LocalDateTime lastVisitEnd, LocalDateTime openEntryAt,
+                             LocalDateTime lastSwipeAt) {
+
+        public static VisitStats empty(String email) { return new VisitStats(email, 0, 0, 0, null, null, null, null); }
+
+        public long averageVisitSeconds() { return visits == 0 ? 0 : totalVisitSeconds / visits; }
+
+        VisitStats next(LocalDateTime at, Duration maxVisit, Duration minVisit) {
+            LocalDateTime last = (lastSwipeAt == null || at.isAfter(lastSwipeAt)) ? at : lastSwipeAt;
+            if (openEntryAt == null) {
+                return new VisitStats(email, visits, totalVisitSeconds, unmatchedEntries, lastVisitStart, lastVisitEnd, at, last);
+            }
+            // Accesos concurrentes pueden llegar desordenados: el más antiguo es la entrada
+            LocalDateTime start = at.isBefore(openEntryAt) ? at : openEntryAt;
+            LocalDateTime end = at.isBefore(openEntryAt) ? openEntryAt : at;
+            Duration length = Duration.between(start, end);
+            if (length.compareTo(minVisit) < 0) {
+                return new VisitStats(email, visits, totalVisitSeconds, unmatchedEntries, lastVisitStart, lastVisitEnd, start, last);
+            }
+            if (length.compareTo(maxVisit) > 0) {
+                return new VisitStats(email, visits, totalVisitSeconds, unmatchedEntries + 1, lastVisitStart, lastVisitEnd, end, last);
+            }
+            return new VisitStats(email, visits + 1, totalVisitSeconds + length.toSeconds(), unmatchedEntries,
+                    start, end, null, last);
+        }
+    }
+
+    private final Duration maxVisit;
+    private final Duration minVisit;
+    private final JdbcTemplate jdbcTemplate;
+    private final OccupancyTracker occupancy;
+    private final ConcurrentHashMap<String, VisitStats> members = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Boolean> dirty = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public VisitSessionizer(@Value("${smartgym.visits.max-visit-minutes:240}") long maxVisitMinutes,
+                            @Value("${smartgym.visits.min-visit-seconds:60}") long minVisitSeconds,
+                            JdbcTemplate jdbcTemplate,
+                            OccupancyTracker occupancy) {
+        if (maxVisitMinutes < 1) throw new IllegalArgumentException("max-visit-minutes must be positive");
+        this.maxVisit = Duration.ofMinutes(maxVisitMinutes);
+        this.minVisit = Duration.ofSeconds(Math.max(0, minVisitSeconds));
+        this.jdbcTemplate = jdbcTemplate;
+        this.occupancy = occupancy;
+    }
+
+    public void record(String email, LocalDateTime at) {
+        LocalDateTime[] openBefore = new LocalDateTime[1];
+        VisitStats next = members.compute(email, (k, current) -> {
+            VisitStats base = current == null ? VisitStats.empty(k) : current;
+            openBefore[0] = base.openEntryAt();
+            return base.next(at, maxVisit, minVisit);
+        });
+        occupancy.moveOpenEntry(openBefore[0], next.openEntryAt());
+        dirty.put(email, Boolean.TRUE);
+    }
+
+    public Optional<VisitStats> stats(String email) {
+        return Optional.ofNullable(members.get(email));
+    }
+
+    /**
+     * Arranque: carga el estado materializado y aplica la asistencia posterior al último acceso
+     * volcado (la primera vez, con la tabla vacía, toda la asistencia). Corre como
+     * {@link SmartLifecycle} después de la reposición del WAL y antes de que el servidor web
+     * acepte accesos. Un acceso se aplica solo si es posterior al último incorporado del miembro.
+     */
+    void warmUp() {
+        members.clear();
+        LocalDateTime[] highWater = new LocalDateTime[1];
+        jdbcTemplate.query("select email, visits, total_visit_seconds, unmatched_entries, " +
+                        "last_visit_start, last_visit_end, open_entry_at, last_swipe_at from member_visit_stats",
+                rs -> {
+                    LocalDateTime end = toLocal(rs.getTimestamp(6));
+                    LocalDateTime open = toLocal(rs.getTimestamp(7));
+                    LocalDateTime last = toLocal(rs.getTimestamp(8));
+                    if (last == null) last = latest(end, open); // filas anteriores a last_swipe_at
+                    var stats = new VisitStats(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                            toLocal(rs.getTimestamp(5)), end, open, last);
+                    members.put(stats.email(), stats);
+                    occupancy.moveOpenEntry(null, stats.openEntryAt());
+                    highWater[0] = latest(highWater[0], last);
+                });
+
+        LocalDateTime from = highWater[0] == null ? LocalDateTime.of(1970, 1, 1, 0, 0) : highWater[0].minus(REPLAY_SKEW);
+        long[] replayed = new long[1];
+        jdbcTemplate.query("select email, timestamp from attendance_records where timestamp > ? order by timestamp",
+                rs -> {
+                    String email = rs.getString(1);
+                    LocalDateTime at = rs.getTimestamp(2).toLocalDateTime();
+                    VisitStats current = members.get(email);
+                    if (current != null && current.lastSwipeAt() != null && !at.isAfter(current.lastSwipeAt())) return;
+                    record(email, at);
+                    replayed[0]++;
+                },
+                Timestamp.valueOf(from));
+        if (replayed[0] > 0) {
+            log.info("Applied {} attendance records to visit stats of {} members", replayed[0], dirty.size());
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartgym.visits.flush-interval-ms:60000}")
+    public void flush() {
+        List<Object[]> rows = new ArrayList<>();
+        for (String email : dirty.keySet()) {
+            dirty.remove(email); // antes de leer: un acceso posterior vuelve a marcarlo
+            VisitStats s = members.get(email);
+            if (s == null) continue;
+            rows.add(new Object[] {s.email(), s.visits(), s.totalVisitSeconds(), s.unmatchedEntries(),
+                    toTimestamp(s.lastVisitStart()), toTimestamp(s.lastVisitEnd()), toTimestamp(s.openEntryAt()),
+                    toTimestamp(s.lastSwipeAt())});
+        }
+        if (rows.isEmpty()) return;
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (RuntimeException e) {
+            for (Object[] row : rows) dirty.put((String) row[0], Boolean.TRUE); // se reintenta en el próximo volcado
+            throw e;
+        }
+    }
+
+    @Override
+    public void start() {
+        warmUp();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Después de AttendanceIngestor (fase 0, repone el WAL) y antes que el servidor web
+    @Override
+    public int getPhase() { return 1; }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        return (b == null || a.isAfter(b)) ? a : b;
+    }
+
+    private static LocalDateTime toLocal(Timestamp ts) { return ts == null ? null : ts.toLocalDateTime(); }
+
+    private static Timestamp toTimestamp(LocalDateTime at) { return at == null ? null : Timestamp.valueOf(at); }
+}
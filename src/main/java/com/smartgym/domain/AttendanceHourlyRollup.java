@@ -0,0 +1,28 @@
+package com.smartgym.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Total de accesos por hora (rollup persistido de {@code OccupancyTracker}).
+ */
+@Entity
+@Table(name = "attendance_hourly_rollups")
+public class AttendanceHourlyRollup {
+    @Id
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(nullable = false)
+    private long swipes;
+
+    protected AttendanceHourlyRollup() { }
+
+    public AttendanceHourlyRollup(LocalDateTime hourStart, long swipes) {
+        this.hourStart = hourStart;
+        this.swipes = swipes;
+    }
+
+    public LocalDateTime getHourStart() { return hourStart; }
+    public long getSwipes() { return swipes; }
+}
@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "attendance_records", indexes = {
-        @Index(name = "idx_attendance_email_time", columnList = "email,timestamp")
+        @Index(name = "idx_attendance_email_time", columnList = "email,timestamp"),
+        @Index(name = "idx_attendance_time", columnList = "timestamp")
 })
 public class AttendanceRecord {
     public enum Role { CUSTOMER, TRAINER }
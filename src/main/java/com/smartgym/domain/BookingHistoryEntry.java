@@ -0,0 +1,41 @@
+package com.smartgym.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Evento de historial de reservas (append-only): una fila por reserva, nunca se reescribe.
+ */
+@Entity
+@Table(name = "booking_history_entries", indexes = {
+        @Index(name = "idx_booking_history_customer_id", columnList = "customer_email,id")
+})
+public class BookingHistoryEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_email", nullable = false, length = 180)
+    private String customerEmail;
+
+    @Column(nullable = false, length = 255)
+    private String note;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected BookingHistoryEntry() { }
+
+    public BookingHistoryEntry(String customerEmail, String note) {
+        this.customerEmail = normalize(customerEmail);
+        this.note = note;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    private String normalize(String s) { return s == null ? null : s.trim().toLowerCase(); }
+
+    public Long getId() { return id; }
+    public String getCustomerEmail() { return customerEmail; }
+    public String getNote() { return note; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -1,8 +1,12 @@
 package com.smartgym.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "identity-links")
 @Table(name = "identity_links")
 public class IdentityLink {
     @Id
@@ -0,0 +1,50 @@
+package com.smartgym.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Estadísticas de visitas por miembro, materializadas por {@code VisitSessionizer}.
+ * Una visita es un par entrada/salida dentro del tiempo máximo configurado.
+ */
+@Entity
+@Table(name = "member_visit_stats")
+public class MemberVisitStats {
+    @Id
+    @Column(length = 180)
+    private String email;
+
+    @Column(nullable = false)
+    private long visits;
+
+    @Column(name = "total_visit_seconds", nullable = false)
+    private long totalVisitSeconds;
+
+    // Entradas sin salida dentro del tiempo máximo
+    @Column(name = "unmatched_entries", nullable = false)
+    private long unmatchedEntries;
+
+    @Column(name = "last_visit_start")
+    private LocalDateTime lastVisitStart;
+
+    @Column(name = "last_visit_end")
+    private LocalDateTime lastVisitEnd;
+
+    @Column(name = "open_entry_at")
+    private LocalDateTime openEntryAt;
+
+    // Último acceso incorporado: al arrancar se aplican los posteriores
+    @Column(name = "last_swipe_at")
+    private LocalDateTime lastSwipeAt;
+
+    protected MemberVisitStats() { }
+
+    public String getEmail() { return email; }
+    public long getVisits() { return visits; }
+    public long getTotalVisitSeconds() { return totalVisitSeconds; }
+    public long getUnmatchedEntries() { return unmatchedEntries; }
+    public LocalDateTime getLastVisitStart() { return lastVisitStart; }
+    public LocalDateTime getLastVisitEnd() { return lastVisitEnd; }
+    public LocalDateTime getOpenEntryAt() { return openEntryAt; }
+    public LocalDateTime getLastSwipeAt() { return lastSwipeAt; }
+}
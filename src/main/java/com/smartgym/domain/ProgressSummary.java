@@ -0,0 +1,81 @@
+package com.smartgym.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Agregados de progreso por cliente, mantenidos en cada alta de {@link ProgressRecord}.
+ * Evita recorrer el historial completo para totales, promedios, mínimos/máximos y último registro.
+ */
+@Entity
+@Table(name = "progress_summaries")
+public class ProgressSummary {
+    @Id
+    @Column(name = "customer_email", length = 180)
+    private String customerEmail;
+
+    @Column(nullable = false)
+    private long records;
+
+    private double weightSum;
+    private double weightMin;
+    private double weightMax;
+    private double bodyFatSum;
+    private double bodyFatMin;
+    private double bodyFatMax;
+    private double muscleSum;
+    private double muscleMin;
+    private double muscleMax;
+
+    private LocalDate latestDate;
+    private double latestWeightKg;
+    private double latestBodyFatPct;
+    private double latestMusclePct;
+
+    protected ProgressSummary() { }
+
+    public ProgressSummary(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
+    public void add(ProgressRecord r) {
+        if (records == 0) {
+            weightMin = weightMax = r.getWeightKg();
+            bodyFatMin = bodyFatMax = r.getBodyFatPct();
+            muscleMin = muscleMax = r.getMusclePct();
+        } else {
+            weightMin = Math.min(weightMin, r.getWeightKg());
+            weightMax = Math.max(weightMax, r.getWeightKg());
+            bodyFatMin = Math.min(bodyFatMin, r.getBodyFatPct());
+            bodyFatMax = Math.max(bodyFatMax, r.getBodyFatPct());
+            muscleMin = Math.min(muscleMin, r.getMusclePct());
+            muscleMax = Math.max(muscleMax, r.getMusclePct());
+        }
+        records++;
+        weightSum += r.getWeightKg();
+        bodyFatSum += r.getBodyFatPct();
+        muscleSum += r.getMusclePct();
+        if (latestDate == null || !r.getDate().isBefore(latestDate)) {
+            latestDate = r.getDate();
+            latestWeightKg = r.getWeightKg();
+            latestBodyFatPct = r.getBodyFatPct();
+            latestMusclePct = r.getMusclePct();
+        }
+    }
+
+    public String getCustomerEmail() { return customerEmail; }
+    public long getRecords() { return records; }
+    public double getAvgWeightKg() { return records == 0 ? 0 : weightSum / records; }
+    public double getAvgBodyFatPct() { return records == 0 ? 0 : bodyFatSum / records; }
+    public double getAvgMusclePct() { return records == 0 ? 0 : muscleSum / records; }
+    public double getWeightMin() { return weightMin; }
+    public double getWeightMax() { return weightMax; }
+    public double getBodyFatMin() { return bodyFatMin; }
+    public double getBodyFatMax() { return bodyFatMax; }
+    public double getMuscleMin() { return muscleMin; }
+    public double getMuscleMax() { return muscleMax; }
+    public LocalDate getLatestDate() { return latestDate; }
+    public double getLatestWeightKg() { return latestWeightKg; }
+    public double getLatestBodyFatPct() { return latestBodyFatPct; }
+    public double getLatestMusclePct() { return latestMusclePct; }
+}
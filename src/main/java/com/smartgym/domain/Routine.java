@@ -2,6 +2,7 @@ package com.smartgym.domain;
 
 import com.smartgym.model.Customer;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.util.EnumMap;
@@ -20,7 +21,9 @@ public class Routine {
     @JoinColumn(name = "customer_email", nullable = false)
     private Customer customer;
 
+    // Si otra ruta recorre varios planes sin fetch join, se cargan de a lotes y no uno por rutina
     @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @CollectionTable(name = "routine_plan", joinColumns = @JoinColumn(name = "routine_id"))
     @MapKeyEnumerated(EnumType.STRING)
     // Usar varchar en vez de enum específico para compatibilidad H2
@@ -31,6 +34,10 @@ public class Routine {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Job de asignación masiva que generó la rutina (null si fue individual)
+    @Column(name = "assignment_job_id")
+    private Long assignmentJobId;
+
     protected Routine() { }
 
     public Routine(Customer customer, Map<DayOfWeek, String> planByDay) {
@@ -43,4 +50,5 @@ public class Routine {
     public String getFor(DayOfWeek day) { return plan.get(day); }
     public Map<DayOfWeek, String> getPlan() { return plan; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public Long getAssignmentJobId() { return assignmentJobId; }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.smartgym.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Estado persistido de una asignación masiva de rutinas. {@code processed} avanza en la
+ * misma transacción que cada lote, así un job interrumpido se reanuda desde lo confirmado.
+ */
+@Entity
+@Table(name = "routine_assignment_jobs")
+public class RoutineAssignmentJob {
+    public enum Status { RUNNING, COMPLETED, FAILED, INTERRUPTED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // Solo clientes con asistencia desde esta fecha (null = todos)
+    @Column(name = "active_since")
+    private LocalDate activeSince;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    // Inicio de la ejecución actual y lo procesado hasta entonces (para el throughput tras reanudar)
+    @Column(name = "run_started_at", nullable = false)
+    private LocalDateTime runStartedAt;
+
+    @Column(name = "run_start_processed", nullable = false)
+    private long runStartProcessed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(length = 500)
+    private String error;
+
+    protected RoutineAssignmentJob() { }
+
+    public RoutineAssignmentJob(LocalDate activeSince, int chunkSize, long total) {
+        this.status = Status.RUNNING;
+        this.activeSince = activeSince;
+        this.chunkSize = chunkSize;
+        this.total = total;
+        this.startedAt = this.runStartedAt = this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public Status getStatus() { return status; }
+    public LocalDate getActiveSince() { return activeSince; }
+    public int getChunkSize() { return chunkSize; }
+    public long getTotal() { return total; }
+    public long getProcessed() { return processed; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getRunStartedAt() { return runStartedAt; }
+    public long getRunStartProcessed() { return runStartProcessed; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,37 @@
+package com.smartgym.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contador {@code smartgym.bookings.conflicts} por origen del rechazo: {@code slot_index}
+ * (admisión en memoria, sin SQL), {@code unique_constraint} (la base detectó la colisión) y
+ * {@code batch} (horarios en conflicto dentro de reservas por lote).
+ */
+@Component
+public class BookingMetrics {
+
+    static final String CONFLICTS = "smartgym.bookings.conflicts";
+
+    private final Counter slotIndex;
+    private final Counter uniqueConstraint;
+    private final Counter batch;
+
+    public BookingMetrics(MeterRegistry registry) {
+        slotIndex = conflicts(registry, "slot_index");
+        uniqueConstraint = conflicts(registry, "unique_constraint");
+        batch = conflicts(registry, "batch");
+    }
+
+    public void slotIndexConflict() { slotIndex.increment(); }
+    public void uniqueConstraintConflict() { uniqueConstraint.increment(); }
+    public void batchConflicts(int slots) { if (slots > 0) batch.increment(slots); }
+
+    private static Counter conflicts(MeterRegistry registry, String source) {
+        return Counter.builder(CONFLICTS)
+                .description("Booking attempts rejected because the trainer slot was taken")
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.smartgym.metrics;
+
+import com.smartgym.application.ActiveRoutineCache;
+import com.smartgym.service.EntityCacheStats;
+import com.smartgym.service.KnownIdentityFilter;
+import com.smartgym.service.ResolvedIdentityCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publica en Micrometer los contadores que ya llevan las cachés: {@code smartgym.cache.gets}
+ * (tags cache, result) y {@code smartgym.cache.size} para las cachés de identidades y rutinas y
+ * para cada región de la caché de entidades, más los rechazos del filtro de identidades. Se leen
+ * al exportar; no añaden trabajo al camino caliente.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    private final ResolvedIdentityCache identityCache;
+    private final ActiveRoutineCache routineCache;
+    private final EntityCacheStats entityCache;
+    private final KnownIdentityFilter identityFilter;
+
+    public CacheMetrics(ResolvedIdentityCache identityCache, ActiveRoutineCache routineCache,
+                        EntityCacheStats entityCache, KnownIdentityFilter identityFilter) {
+        this.identityCache = identityCache;
+        this.routineCache = routineCache;
+        this.entityCache = entityCache;
+        this.identityFilter = identityFilter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache(registry, "identity", identityCache, ResolvedIdentityCache::hits, ResolvedIdentityCache::misses, ResolvedIdentityCache::size);
+        cache(registry, "routine", routineCache, ActiveRoutineCache::hits, ActiveRoutineCache::misses, ActiveRoutineCache::size);
+        for (String region : EntityCacheStats.REGIONS) {
+            cache(registry, "entity-" + region, entityCache,
+                    s -> region(s, region).hits(), s -> region(s, region).misses(), s -> region(s, region).size());
+            FunctionCounter.builder("smartgym.cache.evictions", entityCache, s -> region(s, region).evictions())
+                    .tag("cache", "entity-" + region)
+                    .register(registry);
+        }
+        FunctionCounter.builder("smartgym.identity.filter.definite.misses", identityFilter, KnownIdentityFilter::definiteMisses)
+                .description("Lookups answered as unknown by the Bloom filters without a DB query")
+                .register(registry);
+    }
+
+    private static <T> void cache(MeterRegistry registry, String name, T cache,
+                                  ToLongFunction<T> hits, ToLongFunction<T> misses, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("smartgym.cache.gets", cache, c -> hits.applyAsLong(c))
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("smartgym.cache.gets", cache, c -> misses.applyAsLong(c))
+                .tag("cache", name).tag("result", "miss").register(registry);
+        Gauge.builder("smartgym.cache.size", cache, size)
+                .tag("cache", name).register(registry);
+    }
+
+    private static EntityCacheStats.RegionStats region(EntityCacheStats stats, String region) {
+        return stats.snapshot().getOrDefault(region, new EntityCacheStats.RegionStats(0, 0, 0, 0));
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartgym.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Resumen legible de las métricas para {@code GET /api/v1/health}: pool de conexiones, conflictos
+ * de reserva, sentencias SQL por petición y las rutas y métodos de servicio más lentos por p99.
+ * El p99 se estima con los buckets del histograma (desde el arranque), el máximo es de la ventana
+ * reciente de Micrometer. El detalle completo está en {@code /actuator/prometheus}.
+ */
+@Component
+public class MetricsSummary {
+
+    private static final int TOP = 5;
+
+    private final MeterRegistry registry;
+
+    public MetricsSummary(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("connectionPool", connectionPool());
+        result.put("bookingConflicts", bookingConflicts());
+        result.put("sqlStatementsPerRequest", sqlStatements());
+        result.put("slowestRoutes", slowest(registry.find("http.server.requests").tag("uri", u -> u.startsWith("/api/v1")).timers(),
+                t -> t.getId().getTag("method") + " " + t.getId().getTag("uri")));
+        result.put("slowestServiceMethods", slowest(registry.find(ServiceTimingAspect.METRIC).timers(),
+                t -> t.getId().getTag("class") + "." + t.getId().getTag("method")));
+        return result;
+    }
+
+    // HikariCP: pending > 0 significa peticiones esperando conexión (pool saturado)
+    private Map<String, Object> connectionPool() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        for (String name : List.of("active", "idle", "pending", "max")) {
+            Gauge gauge = registry.find("hikaricp.connections." + name).gauge();
+            pool.put(name, gauge == null ? 0 : (long) gauge.value());
+        }
+        Counter timeouts = registry.find("hikaricp.connections.timeout").counter();
+        pool.put("timeouts", timeouts == null ? 0 : (long) timeouts.count());
+        Timer acquire = registry.find("hikaricp.connections.acquire").timer();
+        pool.put("acquireMaxMs", acquire == null ? 0 : round(acquire.max(TimeUnit.MILLISECONDS)));
+        return pool;
+    }
+
+    private Map<String, Long> bookingConflicts() {
+        Map<String, Long> conflicts = new LinkedHashMap<>();
+        for (Counter c : registry.find(BookingMetrics.CONFLICTS).counters()) {
+            conflicts.merge(c.getId().getTag("source"), (long) c.count(), Long::sum);
+        }
+        return conflicts;
+    }
+
+    private Map<String, Object> sqlStatements() {
+        long count = 0;
+        double total = 0;
+        double max = 0;
+        for (DistributionSummary s : registry.find(SlowRequestLog.STATEMENTS_METRIC).summaries()) {
+            count += s.count();
+            total += s.totalAmount();
+            max = Math.max(max, s.max());
+        }
+        return Map.of("requests", count, "mean", count == 0 ? 0 : round(total / count), "max", (long) max);
+    }
+
+    // Agrupa por clave (sumando status/excepciones) y ordena por p99 estimado
+    private static List<Map<String, Object>> slowest(java.util.Collection<Timer> timers, Function<Timer, String> key) {
+        Map<String, List<HistogramSnapshot>> grouped = new LinkedHashMap<>();
+        for (Timer t : timers) grouped.computeIfAbsent(key.apply(t), k -> new ArrayList<>()).add(t.takeSnapshot());
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        grouped.forEach((name, snapshots) -> {
+            long count = 0;
+            double totalMs = 0;
+            double maxMs = 0;
+            for (HistogramSnapshot s : snapshots) {
+                count += s.count();
+                totalMs += s.total(TimeUnit.MILLISECONDS);
+                maxMs = Math.max(maxMs, s.max(TimeUnit.MILLISECONDS));
+            }
+            if (count == 0) return;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", name);
+            row.put("count", count);
+            row.put("meanMs", round(totalMs / count));
+            row.put("p99Ms", round(p99Millis(snapshots, count)));
+            row.put("maxMs", round(maxMs));
+            rows.add(row);
+        });
+        rows.sort(Comparator.comparingDouble((Map<String, Object> r) -> (double) r.get("p99Ms")).reversed());
+        return rows.subList(0, Math.min(TOP, rows.size()));
+    }
+
+    // Límite superior del primer bucket que acumula el 99 %; los buckets de Prometheus son acumulativos
+    static double p99Millis(List<HistogramSnapshot> snapshots, long count) {
+        Map<Double, Double> cumulative = new java.util.TreeMap<>();
+        for (HistogramSnapshot s : snapshots) {
+            for (CountAtBucket b : s.histogramCounts()) {
+                cumulative.merge(b.bucket(TimeUnit.MILLISECONDS), b.count(), Double::sum);
+            }
+        }
+        double target = Math.ceil(count * 0.99);
+        for (var e : cumulative.entrySet()) {
+            if (e.getValue() >= target) return e.getKey();
+        }
+        return snapshots.stream().mapToDouble(s -> s.max(TimeUnit.MILLISECONDS)).max().orElse(0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
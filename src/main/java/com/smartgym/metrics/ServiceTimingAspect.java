@@ -0,0 +1,63 @@
+package com.smartgym.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temporizador {@code smartgym.service.calls} (tags class, method, exception) en cada método
+ * público de {@code SmartGymService} y {@code GymExtensions}. Envuelve a {@code @Transactional}
+ * para que el commit cuente en la latencia. Las llamadas internas (this.x()) no pasan por el proxy
+ * y se miden dentro de la llamada externa.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceTimingAspect {
+
+    static final String METRIC = "smartgym.service.calls";
+
+    private final MeterRegistry registry;
+    // Timer de éxito por método: evita construir tags y buscar en el registro en cada llamada
+    private final ConcurrentMap<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    public ServiceTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.smartgym.service.SmartGymService.*(..))"
+            + " || execution(public * com.smartgym.application.GymExtensions.*(..))")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = pjp.proceed();
+            Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+            successTimers.computeIfAbsent(method, m -> timer(m, "none")).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable t) {
+            Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+            timer(method, t.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw t;
+        }
+    }
+
+    private Timer timer(Method method, String exception) {
+        return Timer.builder(METRIC)
+                .description("SmartGymService / GymExtensions method latency")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
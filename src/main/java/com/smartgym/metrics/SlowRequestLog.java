@@ -0,0 +1,152 @@
+package com.smartgym.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cierra la {@link SqlTrace} de cada petición: aplica el presupuesto de sentencias de su ruta y
+ * guarda en un buffer circular el desglose de las peticiones lentas o que se pasaron del
+ * presupuesto (consultable en {@code /api/v1/admin/slow-requests}). Un N+1 nuevo aparece aquí
+ * como "budget exceeded" aunque la petición aún sea rápida.
+ * <p>
+ * Presupuestos en {@code smartgym.sql-trace.statement-budgets} como {@code "GET /ruta/{var}=N"}
+ * (0 = sin límite); el resto de rutas usan {@code default-statement-budget}. Al excederlo se
+ * registra un WARN ({@code log}) o, en tests, se lanza {@link SqlBudgetExceededException}
+ * ({@code fail}).
+ * <p>
+ * También publica el número de sentencias de cada petición a {@code /api/v1} como
+ * {@code smartgym.sql.statements} (tags method, uri): una sola cuenta, la de la traza JDBC.
+ */
+@Component
+public class SlowRequestLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestLog.class);
+
+    static final String STATEMENTS_METRIC = "smartgym.sql.statements";
+
+    public enum OnBudgetExceeded { LOG, FAIL }
+
+    public record Entry(String requestId, String startedAt, String method, String route, String uri, int status,
+                        double durationMs, int statements, double dbTimeMs, double slowestStatementMs,
+                        String slowestStatement, int statementBudget, boolean slow, boolean budgetExceeded) {}
+
+    private final long slowThresholdNanos;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets = new HashMap<>();
+    private final OnBudgetExceeded onBudgetExceeded;
+    private final Entry[] ring;
+    private final MeterRegistry registry;
+    // Lock explícito y no synchronized: con hilos virtuales no fija el carrier
+    private final ReentrantLock ringLock = new ReentrantLock();
+    private long written;
+
+    public SlowRequestLog(@Value("${smartgym.sql-trace.slow-request-ms:500}") long slowRequestMs,
+                          @Value("${smartgym.sql-trace.default-statement-budget:0}") int defaultBudget,
+                          @Value("${smartgym.sql-trace.on-budget-exceeded:log}") String onBudgetExceeded,
+                          @Value("${smartgym.sql-trace.capacity:200}") int capacity,
+                          Environment environment,
+                          MeterRegistry registry) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMs);
+        this.defaultBudget = defaultBudget;
+        this.onBudgetExceeded = OnBudgetExceeded.valueOf(onBudgetExceeded.trim().toUpperCase(Locale.ROOT));
+        this.ring = new Entry[Math.max(1, capacity)];
+        this.registry = registry;
+        for (String spec : Binder.get(environment)
+                .bind("smartgym.sql-trace.statement-budgets", Bindable.listOf(String.class)).orElse(List.of())) {
+            int eq = spec.lastIndexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Statement budget must be 'METHOD /route=N': " + spec);
+            budgets.put(spec.substring(0, eq).trim(), Integer.parseInt(spec.substring(eq + 1).trim()));
+        }
+    }
+
+    /**
+     * Llamado por {@code RequestIdFilter} al terminar la cadena, en el hilo de la petición, también
+     * si la cadena lanzó ({@code failed}); en ese caso no se lanza nada para no tapar la excepción.
+     */
+    public void finish(SqlTrace trace, HttpServletRequest request, int status, boolean failed) {
+        long elapsed = trace.elapsedNanos();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (request.getRequestURI().startsWith("/api/v1")) {
+            DistributionSummary.builder(STATEMENTS_METRIC)
+                    .description("SQL statements executed per /api/v1 request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                    .register(registry)
+                    .record(trace.statements());
+        }
+        String route = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        int budget = budgets.getOrDefault(route, defaultBudget);
+        boolean exceeded = budget > 0 && trace.statements() > budget;
+        boolean slow = elapsed >= slowThresholdNanos;
+        if (!slow && !exceeded) return;
+
+        var entry = new Entry(trace.requestId(), Instant.now().minusNanos(elapsed).toString(), request.getMethod(),
+                route, request.getRequestURI(), status, millis(elapsed), trace.statements(), millis(trace.dbNanos()),
+                millis(trace.slowestNanos()), trace.slowestSql(), budget, slow, exceeded);
+        ringLock.lock();
+        try {
+            ring[(int) (written++ % ring.length)] = entry;
+        } finally {
+            ringLock.unlock();
+        }
+        String message = String.format(Locale.ROOT,
+                "Request %s %s took %.1f ms: %d statements (budget %s), db %.1f ms, slowest %.1f ms: %s",
+                entry.requestId(), route, entry.durationMs(), entry.statements(), budget > 0 ? budget : "none",
+                entry.dbTimeMs(), entry.slowestStatementMs(), entry.slowestStatement());
+        log.warn(message);
+        if (exceeded && onBudgetExceeded == OnBudgetExceeded.FAIL && !failed) {
+            throw new SqlBudgetExceededException(message);
+        }
+    }
+
+    /** Más recientes primero. */
+    public List<Entry> recent(int limit) {
+        List<Entry> result = new ArrayList<>();
+        ringLock.lock();
+        try {
+            for (long i = written - 1; i >= 0 && i >= written - ring.length && result.size() < limit; i--) {
+                result.add(ring[(int) (i % ring.length)]);
+            }
+        } finally {
+            ringLock.unlock();
+        }
+        return result;
+    }
+
+    public Optional<Entry> find(String requestId) {
+        return recent(ring.length).stream().filter(e -> e.requestId().equals(requestId)).findFirst();
+    }
+
+    public int capacity() { return ring.length; }
+    public long slowThresholdMs() { return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos); }
+    public OnBudgetExceeded onBudgetExceeded() { return onBudgetExceeded; }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /** Presupuesto de sentencias excedido con {@code on-budget-exceeded: fail}. */
+    public static class SqlBudgetExceededException extends RuntimeException {
+        public SqlBudgetExceededException(String message) { super(message); }
+    }
+}
@@ -0,0 +1,53 @@
+package com.smartgym.metrics;
+
+/**
+ * Sentencias SQL de una petición, indexadas por su {@code X-Request-Id}: cuántas se ejecutaron,
+ * el tiempo total en la base y la más lenta. {@code RequestIdFilter} la abre y la cierra;
+ * {@link TracingDataSource} la alimenta desde el hilo de la petición. Sin traza activa (tareas
+ * programadas, escritura asíncrona de exportaciones) no se mide nada.
+ */
+public final class SqlTrace {
+
+    private static final ThreadLocal<SqlTrace> CURRENT = new ThreadLocal<>();
+
+    private final String requestId;
+    private final long startNanos = System.nanoTime();
+    private int statements;
+    private long dbNanos;
+    private long slowestNanos;
+    private String slowestSql;
+
+    private SqlTrace(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public static SqlTrace start(String requestId) {
+        SqlTrace trace = new SqlTrace(requestId);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static SqlTrace current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String sql, long nanos) {
+        statements++;
+        dbNanos += nanos;
+        if (nanos > slowestNanos) {
+            slowestNanos = nanos;
+            slowestSql = sql;
+        }
+    }
+
+    public String requestId() { return requestId; }
+    public long elapsedNanos() { return System.nanoTime() - startNanos; }
+    public int statements() { return statements; }
+    public long dbNanos() { return dbNanos; }
+    public long slowestNanos() { return slowestNanos; }
+    public String slowestSql() { return slowestSql; }
+}
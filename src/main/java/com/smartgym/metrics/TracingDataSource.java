@@ -0,0 +1,97 @@
+package com.smartgym.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Envuelve el pool para cronometrar cada {@code execute*} de JDBC (Hibernate y JdbcTemplate) en
+ * la {@link SqlTrace} del hilo. Un {@code executeBatch} cuenta como una sentencia; el tiempo es el
+ * de ejecución, sin recorrer el ResultSet. {@code unwrap} sigue llegando al pool real (métricas
+ * de Hikari).
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    public TracingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private static Connection connection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(target));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return "Tracing[" + target + "]";
+                default: break;
+            }
+            Object result = TracingDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(proxy, (Statement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> statement(proxy, (Statement) result, CallableStatement.class, (String) args[0]);
+                case "createStatement" -> statement(proxy, (Statement) result, Statement.class, null);
+                default -> result;
+            };
+        }
+
+        private static Object statement(Object connection, Statement target, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(),
+                    new Class<?>[] {type}, new StatementHandler(connection, target, sql));
+        }
+    }
+
+    private record StatementHandler(Object connection, Statement target, String preparedSql) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return "Tracing[" + target + "]";
+                case "getConnection": return connection;
+                default: break;
+            }
+            SqlTrace trace = name.startsWith("execute") ? SqlTrace.current() : null;
+            if (trace == null) return TracingDataSource.invoke(target, method, args);
+            long start = System.nanoTime();
+            try {
+                return TracingDataSource.invoke(target, method, args);
+            } finally {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                trace.record(sql, System.nanoTime() - start);
+            }
+        }
+    }
+}
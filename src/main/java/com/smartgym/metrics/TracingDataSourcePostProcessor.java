@@ -0,0 +1,26 @@
+package com.smartgym.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/** Envuelve el DataSource en un {@link TracingDataSource} salvo con {@code smartgym.sql-trace.enabled=false}. */
+@Component
+public class TracingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final boolean enabled;
+
+    public TracingDataSourcePostProcessor(Environment environment) {
+        this.enabled = environment.getProperty("smartgym.sql-trace.enabled", Boolean.class, true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource ds && !(bean instanceof TracingDataSource)) {
+            return new TracingDataSource(ds);
+        }
+        return bean;
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Objects;
 @Table(
     name = "bookings",
     uniqueConstraints = {
+        // También es el índice compuesto de las agendas por entrenador (día, semana, rango) ya ordenadas
         @UniqueConstraint(name = "uk_trainer_schedule", columnNames = {"trainer_email", "date", "time"})
     }
 )
@@ -3,14 +3,14 @@ package com.smartgym.model;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.smartgym.domain.PaymentMethod;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
 @Table(name = "customers")
 public class Customer {
     @Id
@@ -22,11 +22,6 @@ public class Customer {
 
     private int age;
 
-    @ElementCollection(fetch = FetchType.LAZY)
-    @CollectionTable(name = "customer_booking_history", joinColumns = @JoinColumn(name = "customer_email"))
-    @Column(name = "note", length = 255)
-    private List<String> bookingHistory = new ArrayList<>();
-
     @Embedded
     private PaymentMethod paymentMethod;
 
@@ -52,9 +47,6 @@ public class Customer {
     public void setName(String name) { this.name = name; }
     public void setAge(int age) { this.age = age; }
 
-    public void addHistory(String note) { bookingHistory.add(note); }
-    public List<String> getBookingHistory() { return Collections.unmodifiableList(bookingHistory); }
-
     public PaymentMethod getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
 
@@ -1,8 +1,12 @@
 package com.smartgym.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trainers")
 @Table(name = "trainers")
 public class Trainer {
     @Id
@@ -0,0 +1,11 @@
+package com.smartgym.repository;
+
+import com.smartgym.domain.AttendanceHourlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AttendanceHourlyRollupRepository extends JpaRepository<AttendanceHourlyRollup, LocalDateTime> {
+    List<AttendanceHourlyRollup> findByHourStartBetweenOrderByHourStartAsc(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,13 @@
+package com.smartgym.repository;
+
+import com.smartgym.domain.BookingHistoryEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BookingHistoryRepository extends JpaRepository<BookingHistoryEntry, Long> {
+    // Keyset descendente sobre idx_booking_history_customer_id: coste independiente de la antigüedad del socio
+    List<BookingHistoryEntry> findByCustomerEmailOrderByIdDesc(String customerEmail, Limit limit);
+    List<BookingHistoryEntry> findByCustomerEmailAndIdLessThanOrderByIdDesc(String customerEmail, long beforeId, Limit limit);
+}
@@ -1,14 +1,53 @@
 package com.smartgym.repository;
 
 import com.smartgym.model.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String VIEW_SELECT = "select new com.smartgym.repository.BookingView(" +
+            "b.id, b.customer.email, b.trainer.email, b.schedule.date, b.schedule.time, b.note) from Booking b ";
+
     List<Booking> findByTrainer_EmailAndSchedule_Date(String trainerEmail, LocalDate date);
     boolean existsByTrainer_EmailAndSchedule_DateAndSchedule_Time(String trainerEmail, LocalDate date, LocalTime time);
     boolean existsByCustomer_EmailAndTrainer_EmailAndSchedule_DateAndSchedule_Time(String customerEmail, String trainerEmail, LocalDate date, LocalTime time);
+
+    @Query("select b.trainer.email as trainerEmail, b.schedule.date as slotDate, b.schedule.time as slotTime " +
+            "from Booking b where b.schedule.date >= :from")
+    List<TrainerSlotView> findSlotsFrom(@Param("from") LocalDate from);
+
+    @Query("select b.trainer.email as trainerEmail, b.schedule.date as slotDate, b.schedule.time as slotTime " +
+            "from Booking b where b.trainer.email = :trainer and b.schedule.date between :from and :to")
+    List<TrainerSlotView> findTrainerSlotsBetween(@Param("trainer") String trainerEmail,
+                                                  @Param("from") LocalDate from,
+                                                  @Param("to") LocalDate to);
+
+    // Ambas consultas recorren uk_trainer_schedule (trainer_email, date, time) en orden: sin sort en Java
+    @Query(VIEW_SELECT + "where b.trainer.email = :trainer and b.schedule.date = :date order by b.schedule.time")
+    List<BookingView> findTrainerDay(@Param("trainer") String trainerEmail, @Param("date") LocalDate date);
+
+    @Query(VIEW_SELECT + "where b.trainer.email = :trainer and b.schedule.date between :from and :to " +
+            "order by b.schedule.date, b.schedule.time")
+    List<BookingView> findTrainerRange(@Param("trainer") String trainerEmail,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    // Paginación keyset: usa el índice de la PK, coste constante sin importar la página
+    @Query(VIEW_SELECT + "where b.id > :afterId order by b.id")
+    List<BookingView> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    // Cursor forward-only; requiere transacción abierta y cerrar el Stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT + "order by b.id")
+    Stream<BookingView> streamAll();
 }
@@ -0,0 +1,11 @@
+package com.smartgym.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Vista de lectura de una reserva: columnas planas, sin asociaciones LAZY.
+ */
+public record BookingView(Long id, String customerEmail, String trainerEmail,
+                          LocalDate date, LocalTime time, String note) {
+}
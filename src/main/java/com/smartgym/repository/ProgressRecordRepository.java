@@ -1,9 +1,17 @@
 package com.smartgym.repository;
 
 import com.smartgym.domain.ProgressRecord;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ProgressRecordRepository extends JpaRepository<ProgressRecord, Long> {
     List<ProgressRecord> findByCustomerEmailOrderByDateAsc(String email);
+
+    // Últimos N registros por (customer_email, date), servidos por uk_progress_customer_date
+    List<ProgressRecord> findByCustomerEmailOrderByDateDesc(String email, Limit limit);
+
+    // Rango sobre (customer_email, date): mismo índice, sin leer fuera de la ventana
+    List<ProgressRecord> findByCustomerEmailAndDateBetweenOrderByDateAsc(String email, LocalDate from, LocalDate to);
 }
@@ -0,0 +1,18 @@
+package com.smartgym.repository;
+
+import com.smartgym.domain.ProgressSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ProgressSummaryRepository extends JpaRepository<ProgressSummary, String> {
+
+    // Serializa altas concurrentes del mismo cliente sobre su fila de agregados
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ProgressSummary s where s.customerEmail = :email")
+    Optional<ProgressSummary> findForUpdate(@Param("email") String email);
+}
@@ -0,0 +1,10 @@
+package com.smartgym.repository;
+
+import com.smartgym.domain.RoutineAssignmentJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RoutineAssignmentJobRepository extends JpaRepository<RoutineAssignmentJob, Long> {
+    List<RoutineAssignmentJob> findByStatus(RoutineAssignmentJob.Status status);
+}
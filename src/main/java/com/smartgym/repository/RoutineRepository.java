@@ -1,11 +1,31 @@
 package com.smartgym.repository;
 
 import com.smartgym.domain.Routine;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 import java.util.Optional;
 
 public interface RoutineRepository extends JpaRepository<Routine, Long> {
     List<Routine> findByCustomerEmailOrderByCreatedAtAsc(String email);
     Optional<Routine> findFirstByCustomerEmailOrderByCreatedAtDesc(String email);
+
+    // Página del historial en dos pasos: ids por keyset (sin colección, el límite va a SQL)
+    @Query("select r.id from Routine r where r.customer.email = :email order by r.id desc")
+    List<Long> findHistoryIds(@Param("email") String email, Limit limit);
+
+    @Query("select r.id from Routine r where r.customer.email = :email and r.id < :beforeId order by r.id desc")
+    List<Long> findHistoryIdsBefore(@Param("email") String email, @Param("beforeId") long beforeId, Limit limit);
+
+    // ... y rutinas con su plan en una sola consulta (sin una carga perezosa por rutina)
+    @Query("select distinct r from Routine r left join fetch r.plan where r.id in :ids order by r.id asc")
+    List<Routine> findWithPlanByIdIn(@Param("ids") List<Long> ids);
+
+    // Rutina activa con su plan; el id IDENTITY sigue el orden de created_at
+    @Query("select r from Routine r left join fetch r.plan where r.id = " +
+            "(select max(r2.id) from Routine r2 where r2.customer.email = :email)")
+    Optional<Routine> findActiveWithPlan(@Param("email") String email);
 }
@@ -0,0 +1,14 @@
+package com.smartgym.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Proyección mínima (entrenador, fecha, hora) de una reserva.
+ * Se lee directamente de las columnas FK sin inicializar proxies.
+ */
+public interface TrainerSlotView {
+    String getTrainerEmail();
+    LocalDate getSlotDate();
+    LocalTime getSlotTime();
+}
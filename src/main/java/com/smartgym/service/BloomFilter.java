@@ -0,0 +1,76 @@
+package com.smartgym.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom de tamaño fijo para claves de texto, sin bloqueos.
+ * {@code mightContain == false} es definitivo; {@code true} puede ser un falso positivo
+ * con probabilidad ~{@code fpp} mientras no se superen {@code expectedEntries} inserciones.
+ * No admite borrados: una clave eliminada de la base solo degrada en un falso positivo.
+ */
+final class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long expectedEntries;
+    private final LongAdder insertions = new LongAdder();
+
+    BloomFilter(long expectedEntries, double fpp) {
+        if (expectedEntries < 1) throw new IllegalArgumentException("expected entries must be positive");
+        if (fpp <= 0 || fpp >= 1) throw new IllegalArgumentException("fpp must be between 0 and 1");
+        long m = (long) Math.ceil(-expectedEntries * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int length = (int) Math.min(Integer.MAX_VALUE, (m + 63) / 64);
+        this.words = new AtomicLongArray(length);
+        this.bits = (long) length * 64;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedEntries * Math.log(2)));
+        this.expectedEntries = expectedEntries;
+    }
+
+    void put(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1; // impar: recorre todas las posiciones
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) words.getAndAccumulate(word, mask, (a, b) -> a | b);
+        }
+        insertions.increment();
+    }
+
+    boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    long insertions() { return insertions.sum(); }
+
+    long expectedEntries() { return expectedEntries; }
+
+    /** Probabilidad de falso positivo estimada con las inserciones actuales. */
+    double estimatedFpp() {
+        return Math.pow(1 - Math.exp(-hashes * (double) insertions() / bits), hashes);
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, con mezcla final de murmur3
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
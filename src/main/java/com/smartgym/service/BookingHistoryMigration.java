@@ -0,0 +1,67 @@
+package com.smartgym.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Copia una única vez el historial de la antigua colección {@code customer_booking_history}
+ * a la tabla append-only {@code booking_history_entries}. La tabla antigua no se borra.
+ * <p>
+ * Corre como {@link SmartLifecycle} de fase temprana, antes de que el servidor web acepte
+ * peticiones, y se marca en {@code data_migrations}: una reserva nueva en
+ * {@code booking_history_entries} no impide la copia.
+ */
+@Component
+public class BookingHistoryMigration implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(BookingHistoryMigration.class);
+
+    static final String MIGRATION = "booking-history-entries";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private volatile boolean running;
+
+    public BookingHistoryMigration(JdbcTemplate jdbcTemplate, TransactionTemplate tx) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = tx;
+    }
+
+    @Override
+    public void start() {
+        tx.executeWithoutResult(status -> migrateLegacyHistory());
+        running = true;
+    }
+
+    void migrateLegacyHistory() {
+        Integer legacyTables = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where upper(table_name) = 'CUSTOMER_BOOKING_HISTORY'",
+                Integer.class);
+        if (legacyTables == null || legacyTables == 0) return;
+        if (DataMigrations.applied(jdbcTemplate, MIGRATION)) return;
+
+        // La colección no tenía columna de orden: _rowid_ conserva el orden de inserción, así
+        // los ids nuevos siguen el orden del historial antiguo
+        int rows = jdbcTemplate.update(
+                "insert into booking_history_entries (customer_email, note, created_at) " +
+                "select customer_email, note, current_timestamp from customer_booking_history " +
+                "where note is not null order by _rowid_");
+        DataMigrations.markApplied(jdbcTemplate, MIGRATION);
+        if (rows > 0) {
+            log.info("Migrated {} legacy booking history rows to booking_history_entries", rows);
+        }
+    }
+
+    @Override
+    public void stop() { running = false; }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Antes que el servidor web (WebServerStartStopLifecycle)
+    @Override
+    public int getPhase() { return 0; }
+}
@@ -0,0 +1,127 @@
+package com.smartgym.service;
+
+import com.smartgym.repository.BookingRepository;
+import com.smartgym.repository.TrainerSlotView;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Índice en memoria de horarios ocupados por entrenador y día.
+ * Cada día es un bitmap de 1440 bits (un bit por minuto) que permite rechazar
+ * un horario tomado antes de ejecutar SQL. La restricción única
+ * {@code uk_trainer_schedule} sigue siendo la garantía final.
+ * <p>
+ * {@link #tryReserve} hace de capa de admisión: un CAS sobre la palabra del bitmap
+ * deja pasar un único intento por (entrenador, fecha, hora); intentos sobre otros
+ * entrenadores u otros minutos no comparten ningún lock.
+ * <p>
+ * Se carga como {@link SmartLifecycle} antes de que el servidor web acepte reservas; los días
+ * pasados ya no pueden entrar en conflicto y se descartan cada noche.
+ */
+@Component
+public class BookingSlotIndex implements SmartLifecycle {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS = (MINUTES_PER_DAY + 63) / 64;
+
+    private record TrainerDay(String trainerEmail, LocalDate date) {}
+
+    private final ConcurrentHashMap<TrainerDay, AtomicLongArray> days = new ConcurrentHashMap<>();
+    private final BookingRepository bookingRepository;
+    private volatile boolean running;
+
+    public BookingSlotIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /** Marca las reservas desde hoy. Solo añade bits: no pisa reservas admitidas mientras tanto. */
+    public void warmUp() {
+        // Solo interesan reservas futuras: las pasadas ya no pueden entrar en conflicto
+        for (TrainerSlotView slot : bookingRepository.findSlotsFrom(LocalDate.now())) {
+            mark(slot.getTrainerEmail(), slot.getSlotDate(), slot.getSlotTime());
+        }
+    }
+
+    @Scheduled(cron = "${smartgym.slot-index.prune-cron:0 5 0 * * *}")
+    public void pruneExpiredDays() {
+        pruneBefore(LocalDate.now());
+    }
+
+    void pruneBefore(LocalDate today) {
+        days.keySet().removeIf(day -> day.date().isBefore(today));
+    }
+
+    int trainerDays() { return days.size(); }
+
+    public boolean isTaken(String trainerEmail, LocalDate date, LocalTime time) {
+        if (!indexable(time)) return false; // la BD decide
+        AtomicLongArray bits = days.get(new TrainerDay(trainerEmail, date));
+        if (bits == null) return false;
+        int minute = minuteOf(time);
+        return (bits.get(minute >>> 6) & (1L << minute)) != 0;
+    }
+
+    /**
+     * Reserva el minuto de forma atómica. Devuelve {@code false} si ya estaba ocupado.
+     * Horas no indexables siempre se admiten y quedan a cargo de la BD.
+     */
+    public boolean tryReserve(String trainerEmail, LocalDate date, LocalTime time) {
+        if (!indexable(time)) return true;
+        AtomicLongArray bits = days.computeIfAbsent(new TrainerDay(trainerEmail, date), k -> new AtomicLongArray(WORDS));
+        int minute = minuteOf(time);
+        int word = minute >>> 6;
+        long mask = 1L << minute;
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) return false;
+            if (bits.compareAndSet(word, current, current | mask)) return true;
+        }
+    }
+
+    public void mark(String trainerEmail, LocalDate date, LocalTime time) {
+        if (!indexable(time)) return;
+        AtomicLongArray bits = days.computeIfAbsent(new TrainerDay(trainerEmail, date), k -> new AtomicLongArray(WORDS));
+        int minute = minuteOf(time);
+        long mask = 1L << minute;
+        bits.getAndAccumulate(minute >>> 6, mask, (w, m) -> w | m);
+    }
+
+    public void release(String trainerEmail, LocalDate date, LocalTime time) {
+        if (!indexable(time)) return;
+        AtomicLongArray bits = days.get(new TrainerDay(trainerEmail, date));
+        if (bits == null) return;
+        int minute = minuteOf(time);
+        long mask = 1L << minute;
+        bits.getAndAccumulate(minute >>> 6, mask, (w, m) -> w & ~m);
+    }
+
+    @Override
+    public void start() {
+        warmUp();
+        running = true;
+    }
+
+    @Override
+    public void stop() { running = false; }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Antes que el servidor web (WebServerStartStopLifecycle)
+    @Override
+    public int getPhase() { return 0; }
+
+    // Horas con segundos no caben en el bitmap por minuto
+    private boolean indexable(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    private int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,23 @@
+package com.smartgym.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Resultado por horario de una reserva en lote.
+ */
+public record BookingSlotOutcome(LocalDate date, LocalTime time, Status status, Long bookingId, String reason) {
+    public enum Status { CREATED, CONFLICT, REJECTED }
+
+    static BookingSlotOutcome created(LocalDate date, LocalTime time, long id) {
+        return new BookingSlotOutcome(date, time, Status.CREATED, id, null);
+    }
+
+    static BookingSlotOutcome conflict(LocalDate date, LocalTime time) {
+        return new BookingSlotOutcome(date, time, Status.CONFLICT, null, "Trainer already has a booking at " + date + " " + time + ".");
+    }
+
+    static BookingSlotOutcome rejected(LocalDate date, LocalTime time, String reason) {
+        return new BookingSlotOutcome(date, time, Status.REJECTED, null, reason);
+    }
+}
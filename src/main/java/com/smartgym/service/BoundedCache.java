@@ -0,0 +1,73 @@
+package com.smartgym.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * Caché acotada (Caffeine) para valores leídos de la base que se invalidan al escribir.
+ * <p>
+ * Evita el {@code put} rancio: un lector que falla, carga el valor viejo y lo guarda después de
+ * la invalidación del escritor. El lector toma {@link #stamp(Object)} antes de cargar y guarda con
+ * {@link #put(Object, Object, long)}; si entretanto hubo una invalidación de esa clave (o de
+ * todas) el valor se descarta. Las generaciones van por franjas de claves: una invalidación
+ * ajena como mucho hace perder un {@code put}, nunca deja un valor viejo.
+ */
+public final class BoundedCache<K, V> {
+
+    private static final int STRIPES = 64;
+
+    private final Cache<K, V> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    public BoundedCache(int maxEntries) {
+        this.entries = Caffeine.newBuilder().maximumSize(maxEntries).recordStats().build();
+    }
+
+    public V get(K key) {
+        return entries.getIfPresent(key);
+    }
+
+    /** Generación de la clave; tomarla antes de leer de la base. */
+    public long stamp(K key) {
+        return globalGeneration.get() + generations.get(stripe(key));
+    }
+
+    /** Guarda el valor salvo que la clave se haya invalidado desde {@code stamp}. */
+    public void put(K key, V value, long stamp) {
+        if (stamp(key) != stamp) return;
+        entries.put(key, value);
+        // Una invalidación entre la comprobación y el put sube la generación antes de borrar:
+        // si llegó a borrar antes que nosotros, lo vemos aquí y quitamos nuestro valor
+        if (stamp(key) != stamp) entries.asMap().remove(key, value);
+    }
+
+    public void invalidate(K key) {
+        if (key == null) return;
+        generations.incrementAndGet(stripe(key));
+        entries.invalidate(key);
+    }
+
+    /** Invalida por valor; no conoce las claves aún no cacheadas, así que sube la generación global. */
+    public void invalidateIf(Predicate<V> predicate) {
+        globalGeneration.incrementAndGet();
+        entries.asMap().values().removeIf(predicate);
+    }
+
+    public void clear() {
+        globalGeneration.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    public long hits() { return entries.stats().hitCount(); }
+    public long misses() { return entries.stats().missCount(); }
+    public int size() { return (int) entries.estimatedSize(); }
+
+    private static int stripe(Object key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+}
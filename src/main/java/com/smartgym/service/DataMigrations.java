@@ -0,0 +1,24 @@
+package com.smartgym.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Marcas de migraciones de datos de un solo uso en {@code data_migrations}. Se consultan y se
+ * escriben dentro de la transacción de la propia migración.
+ */
+public final class DataMigrations {
+
+    private DataMigrations() { }
+
+    public static boolean applied(JdbcTemplate jdbcTemplate, String name) {
+        jdbcTemplate.execute("create table if not exists data_migrations " +
+                "(name varchar(100) primary key, applied_at timestamp not null)");
+        Integer applied = jdbcTemplate.queryForObject(
+                "select count(*) from data_migrations where name = ?", Integer.class, name);
+        return applied != null && applied > 0;
+    }
+
+    public static void markApplied(JdbcTemplate jdbcTemplate, String name) {
+        jdbcTemplate.update("insert into data_migrations (name, applied_at) values (?, current_timestamp)", name);
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartgym.service;
+
+import com.smartgym.domain.IdentityLink;
+import com.smartgym.model.Customer;
+import com.smartgym.model.Trainer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estadísticas y desalojo de la caché de segundo nivel de {@link Customer}, {@link Trainer}
+ * e {@link IdentityLink}. Las escrituras por JPA la mantienen coherente solas (READ_WRITE);
+ * quien escriba esas tablas por JDBC debe llamar a {@link #evictAll()} después.
+ */
+@Component
+public class EntityCacheStats {
+
+    public static final String[] REGIONS = {"customers", "trainers", "identity-links"};
+
+    public record RegionStats(long hits, long misses, long evictions, long size) {}
+
+    private final EntityManagerFactory emf;
+
+    public EntityCacheStats(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public Map<String, RegionStats> snapshot() {
+        Map<String, RegionStats> result = new LinkedHashMap<>();
+        var cacheManager = regionFactory().getCacheManager();
+        for (String region : REGIONS) {
+            javax.cache.Cache<?, ?> cache = cacheManager.getCache(region);
+            if (cache == null) continue;
+            var caffeine = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            var s = caffeine.stats();
+            result.put(region, new RegionStats(s.hitCount(), s.missCount(), s.evictionCount(), caffeine.estimatedSize()));
+        }
+        return result;
+    }
+
+    public void evictAll() {
+        var cache = emf.getCache();
+        cache.evict(Customer.class);
+        cache.evict(Trainer.class);
+        cache.evict(IdentityLink.class);
+    }
+
+    private JCacheRegionFactory regionFactory() {
+        RegionFactory factory = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(RegionFactory.class);
+        return (JCacheRegionFactory) factory;
+    }
+}
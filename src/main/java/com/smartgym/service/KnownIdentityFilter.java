@@ -0,0 +1,86 @@
+package com.smartgym.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtros de Bloom sobre los DNI vinculados y los emails de clientes y entrenadores.
+ * Un DNI o email que el filtro no contiene no existe: la búsqueda se responde sin ir a la base
+ * (tarjetas inválidas, typos, un lector que reintenta en bucle).
+ * <p>
+ * Para que no haya falsos negativos, cada alta añade su clave <em>antes</em> de escribir la fila;
+ * si la transacción se revierte queda un falso positivo, que es inocuo. Al arrancar se cargan
+ * las claves existentes; hasta entonces todas las consultas pasan a la base.
+ * Las escrituras que no pasan por la aplicación (consola H2) no se ven hasta el próximo arranque;
+ * por eso solo se usa en lecturas, nunca para saltarse la comprobación de duplicados de un alta.
+ */
+@Component
+public class KnownIdentityFilter {
+    private static final Logger log = LoggerFactory.getLogger(KnownIdentityFilter.class);
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final BloomFilter dnis;
+    private final BloomFilter customers;
+    private final BloomFilter trainers;
+    private final LongAdder definiteMisses = new LongAdder();
+    private volatile boolean ready;
+
+    public KnownIdentityFilter(@Value("${smartgym.identity-filter.enabled:true}") boolean enabled,
+                               @Value("${smartgym.identity-filter.expected-entries:1000000}") long expectedEntries,
+                               @Value("${smartgym.identity-filter.fpp:0.01}") double fpp,
+                               JdbcTemplate jdbcTemplate) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dnis = new BloomFilter(expectedEntries, fpp);
+        this.customers = new BloomFilter(expectedEntries, fpp);
+        this.trainers = new BloomFilter(expectedEntries, fpp);
+    }
+
+    public boolean mightBeDni(String dni) { return check(dnis, dni); }
+    public boolean mightBeCustomer(String email) { return check(customers, email); }
+    public boolean mightBeTrainer(String email) { return check(trainers, email); }
+
+    // Claves ya normalizadas (trim + minúsculas), igual que las PK
+    public void addDni(String dni) { if (dni != null) dnis.put(dni); }
+    public void addCustomer(String email) { if (email != null) customers.put(email); }
+    public void addTrainer(String email) { if (email != null) trainers.put(email); }
+
+    private boolean check(BloomFilter filter, String key) {
+        if (!enabled || !ready || key == null) return true;
+        if (filter.mightContain(key)) return true;
+        definiteMisses.increment();
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        jdbcTemplate.query("select dni from identity_links", rs -> { dnis.put(rs.getString(1)); });
+        jdbcTemplate.query("select email from customers", rs -> { customers.put(rs.getString(1)); });
+        jdbcTemplate.query("select email from trainers", rs -> { trainers.put(rs.getString(1)); });
+        ready = true;
+        log.info("Identity filter loaded in {} ms ({} dnis, {} customers, {} trainers)",
+                (System.nanoTime() - start) / 1_000_000, dnis.insertions(), customers.insertions(), trainers.insertions());
+        for (BloomFilter f : new BloomFilter[] {dnis, customers, trainers}) {
+            if (f.insertions() > f.expectedEntries()) {
+                log.warn("Identity filter holds {} keys, above smartgym.identity-filter.expected-entries={}; " +
+                        "false positives will grow until it is raised", f.insertions(), f.expectedEntries());
+            }
+        }
+    }
+
+    public boolean ready() { return ready; }
+    public long definiteMisses() { return definiteMisses.sum(); }
+    public double estimatedFpp() {
+        return Math.max(dnis.estimatedFpp(), Math.max(customers.estimatedFpp(), trainers.estimatedFpp()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.smartgym.service;
+
+import com.smartgym.domain.AttendanceRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caché DNI → (email, rol, nombre) para el torniquete. Con un acierto el acceso
+ * se reduce a un único insert de asistencia.
+ * Se invalida por DNI al re-vincular identidad y por email al dar de alta o
+ * modificar clientes y entrenadores. El lector toma {@link #stamp(String)} antes de
+ * resolver la identidad: ver {@link BoundedCache}.
+ */
+@Component
+public class ResolvedIdentityCache {
+
+    public record ResolvedIdentity(String email, AttendanceRecord.Role role, String displayName) {}
+
+    private final BoundedCache<String, ResolvedIdentity> entries;
+
+    public ResolvedIdentityCache(@Value("${smartgym.identity-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new BoundedCache<>(maxEntries);
+    }
+
+    public ResolvedIdentity get(String dni) {
+        return entries.get(dni);
+    }
+
+    public long stamp(String dni) {
+        return entries.stamp(dni);
+    }
+
+    public void put(String dni, ResolvedIdentity identity, long stamp) {
+        entries.put(dni, identity, stamp);
+    }
+
+    public void invalidateDni(String dni) {
+        entries.invalidate(dni);
+    }
+
+    public void invalidateEmail(String email) {
+        if (email != null) entries.invalidateIf(e -> e.email().equals(email));
+    }
+
+    public void clear() { entries.clear(); }
+
+    public long hits() { return entries.hits(); }
+    public long misses() { return entries.misses(); }
+    public int size() { return entries.size(); }
+}
@@ -1,30 +1,72 @@
 package com.smartgym.service;
 
+import com.smartgym.domain.BookingHistoryEntry;
+import com.smartgym.metrics.BookingMetrics;
 import com.smartgym.model.Booking;
 import com.smartgym.model.Customer;
 import com.smartgym.model.Trainer;
+import com.smartgym.repository.BookingHistoryRepository;
 import com.smartgym.repository.CustomerRepository;
 import com.smartgym.repository.TrainerRepository;
 import com.smartgym.repository.BookingRepository;
+import com.smartgym.repository.BookingView;
+import com.smartgym.repository.TrainerSlotView;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class SmartGymService {
+    static final int MAX_BATCH_SLOTS = 400;
+    static final int MAX_RANGE_DAYS = 62;
+    static final int MAX_HISTORY_PAGE = 200;
+    private static final String INSERT_BOOKING_SQL =
+            "insert into bookings (customer_email, trainer_email, date, time, note) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_HISTORY_SQL =
+            "insert into booking_history_entries (customer_email, note, created_at) values (?, ?, ?)";
+
     private final CustomerRepository customerRepository;
     private final TrainerRepository trainerRepository;
     private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository historyRepository;
+    private final BookingSlotIndex slotIndex;
+    private final ResolvedIdentityCache identityCache;
+    private final KnownIdentityFilter identityFilter;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingMetrics bookingMetrics;
 
     public SmartGymService(CustomerRepository customerRepository,
                            TrainerRepository trainerRepository,
-                           BookingRepository bookingRepository) {
+                           BookingRepository bookingRepository,
+                           BookingHistoryRepository historyRepository,
+                           BookingSlotIndex slotIndex,
+                           ResolvedIdentityCache identityCache,
+                           KnownIdentityFilter identityFilter,
+                           JdbcTemplate jdbcTemplate,
+                           BookingMetrics bookingMetrics) {
         this.customerRepository = customerRepository;
         this.trainerRepository = trainerRepository;
         this.bookingRepository = bookingRepository;
+        this.historyRepository = historyRepository;
+        this.slotIndex = slotIndex;
+        this.identityCache = identityCache;
+        this.identityFilter = identityFilter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.bookingMetrics = bookingMetrics;
     }
 
     public void addCustomer(Customer c) {
@@ -32,21 +74,35 @@ public class SmartGymService {
         if (key == null || key.isBlank()) {
             throw new IllegalArgumentException("Customer email must not be blank.");
         }
+        // Sin atajo del filtro: una fila escrita fuera de la aplicación no está en él y save()
+        // la sobrescribiría en silencio (merge sobre id asignado)
         if (customerRepository.existsById(key)) {
             throw new IllegalStateException("Customer already exists: " + key);
         }
+        identityFilter.addCustomer(key); // antes del insert: el filtro nunca puede ir por detrás de la base
         customerRepository.save(c);
+        identityCache.invalidateEmail(key); // el rol resuelto para ese email puede cambiar
     }
 
     public Optional<Customer> findCustomer(String email) {
         String key = normalize(email);
-        return (key == null) ? Optional.empty() : customerRepository.findById(key);
+        return (key == null || !identityFilter.mightBeCustomer(key)) ? Optional.empty() : customerRepository.findById(key);
     }
 
-    public List<String> getCustomerHistory(String customerEmail) {
-        return findCustomer(customerEmail)
-                .map(Customer::getBookingHistory)
-                .orElse(List.of());
+    /**
+     * Historial de reservas más reciente primero. {@code beforeId} (opcional) es el cursor
+     * de la página anterior; cada página es un rango del índice (customer_email, id).
+     */
+    @Transactional(readOnly = true)
+    public List<BookingHistoryEntry> getCustomerHistory(String customerEmail, Long beforeId, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_HISTORY_PAGE + ".");
+        }
+        String key = normalize(customerEmail);
+        if (key == null) return List.of();
+        return (beforeId == null)
+                ? historyRepository.findByCustomerEmailOrderByIdDesc(key, Limit.of(limit))
+                : historyRepository.findByCustomerEmailAndIdLessThanOrderByIdDesc(key, beforeId, Limit.of(limit));
     }
 
     public void addTrainer(Trainer t) {
@@ -57,12 +113,14 @@ public class SmartGymService {
         if (trainerRepository.existsById(key)) {
             throw new IllegalStateException("Trainer already exists: " + key);
         }
+        identityFilter.addTrainer(key);
         trainerRepository.save(t);
+        identityCache.invalidateEmail(key);
     }
 
     public Optional<Trainer> findTrainer(String email) {
         String key = normalize(email);
-        return (key == null) ? Optional.empty() : trainerRepository.findById(key);
+        return (key == null || !identityFilter.mightBeTrainer(key)) ? Optional.empty() : trainerRepository.findById(key);
     }
 
     @Transactional
@@ -82,12 +140,19 @@ public class SmartGymService {
         String cKey = normalize(customerEmail);
         String tKey = normalize(trainerEmail);
 
+        // Antes de reservar: un entrenador inexistente no debe dejar su día en el índice
         Customer customer = customerRepository.findById(cKey)
                 .orElseThrow(() -> new IllegalArgumentException("Customer does not exist: " + customerEmail));
         Trainer trainer = trainerRepository.findById(tKey)
             .orElseThrow(() -> new IllegalArgumentException("Trainer does not exist: " + trainerEmail));
 
         Booking.Schedule schedule = new Booking.Schedule(date, time);
+        // Admisión en memoria: solo un intento por horario llega a SQL; el resto se rechaza sin insert ni rollback
+        SlotReservation reservation = reserveSlot(tKey, date, time);
+        if (reservation == null) {
+            bookingMetrics.slotIndexConflict();
+            throw new IllegalStateException("Trainer already has a booking at " + schedule + ".");
+        }
 
         Booking candidate = new Booking(customer, trainer, schedule, note);
         Booking saved;
@@ -95,10 +160,11 @@ public class SmartGymService {
             saved = bookingRepository.save(candidate);
         } catch (org.springframework.dao.DataIntegrityViolationException ex) {
             // Restricción única (entrenador+fecha+hora) indica horario ocupado
+            reservation.keep();
+            bookingMetrics.uniqueConstraintConflict();
             throw new IllegalStateException("Trainer already has a booking at " + schedule + ".");
         }
-        customer.addHistory("Booked with " + trainer.getEmail() + " at " + schedule);
-        customerRepository.save(customer); // guardar historial actualizado
+        historyRepository.save(new BookingHistoryEntry(cKey, "Booked with " + trainer.getEmail() + " at " + schedule));
         return saved;
     }
 
@@ -113,26 +179,223 @@ public class SmartGymService {
         return createBooking(customerEmail, trainerEmail, LocalDate.now(), time, note);
     }
 
+    /**
+     * Reserva recurrente: mismo entrenador y hora en los días de semana indicados
+     * dentro de [startDate, endDate]. Ver {@link #createBookings}.
+     */
+    @Transactional
+    public List<BookingSlotOutcome> createRecurringBookings(String customerEmail, String trainerEmail,
+                                                            LocalDate startDate, LocalDate endDate,
+                                                            Set<DayOfWeek> daysOfWeek, LocalTime time, String note) {
+        if (startDate == null || endDate == null || daysOfWeek == null || daysOfWeek.isEmpty() || time == null) {
+            throw new IllegalArgumentException("Incomplete data to create recurring bookings.");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date.");
+        }
+        List<Booking.Schedule> schedules = new ArrayList<>();
+        for (LocalDate d = startDate; !d.isAfter(endDate); d = d.plusDays(1)) {
+            if (daysOfWeek.contains(d.getDayOfWeek())) {
+                schedules.add(new Booking.Schedule(d, time));
+                if (schedules.size() > MAX_BATCH_SLOTS) {
+                    throw new IllegalArgumentException("Too many slots in one batch (max " + MAX_BATCH_SLOTS + ").");
+                }
+            }
+        }
+        return createBookings(customerEmail, trainerEmail, schedules, note);
+    }
+
+    /**
+     * Reserva en lote para un cliente y entrenador: resuelve ambos una sola vez, valida
+     * todos los horarios en una pasada (pasado, BD, índice en memoria) e inserta los
+     * admitidos con un único batch JDBC. Devuelve el resultado por horario en el orden recibido.
+     */
+    @Transactional
+    public List<BookingSlotOutcome> createBookings(String customerEmail, String trainerEmail,
+                                                   List<Booking.Schedule> schedules, String note) {
+        if (customerEmail == null || trainerEmail == null || schedules == null || schedules.isEmpty()) {
+            throw new IllegalArgumentException("Incomplete data to create bookings.");
+        }
+        if (schedules.size() > MAX_BATCH_SLOTS) {
+            throw new IllegalArgumentException("Too many slots in one batch (max " + MAX_BATCH_SLOTS + ").");
+        }
+        String cKey = normalize(customerEmail);
+        String tKey = normalize(trainerEmail);
+        if (!customerRepository.existsById(cKey)) {
+            throw new IllegalArgumentException("Customer does not exist: " + customerEmail);
+        }
+        Trainer trainer = trainerRepository.findById(tKey)
+                .orElseThrow(() -> new IllegalArgumentException("Trainer does not exist: " + trainerEmail));
+
+        LocalDate from = schedules.stream().map(Booking.Schedule::getDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = schedules.stream().map(Booking.Schedule::getDate).max(Comparator.naturalOrder()).orElseThrow();
+        Set<Booking.Schedule> taken = new HashSet<>();
+        for (TrainerSlotView v : bookingRepository.findTrainerSlotsBetween(tKey, from, to)) {
+            taken.add(new Booking.Schedule(v.getSlotDate(), v.getSlotTime()));
+        }
+
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        BookingSlotOutcome[] outcomes = new BookingSlotOutcome[schedules.size()];
+        List<Integer> admitted = new ArrayList<>();
+        int conflicts = 0;
+        for (int i = 0; i < schedules.size(); i++) {
+            Booking.Schedule s = schedules.get(i);
+            if (s.getDate().atTime(s.getTime()).isBefore(now)) {
+                outcomes[i] = BookingSlotOutcome.rejected(s.getDate(), s.getTime(), "Bookings in the past are not allowed.");
+            } else if (!taken.add(s) || reserveSlot(tKey, s.getDate(), s.getTime()) == null) {
+                // taken.add también descarta horarios repetidos dentro del mismo lote
+                outcomes[i] = BookingSlotOutcome.conflict(s.getDate(), s.getTime());
+                conflicts++;
+            } else {
+                admitted.add(i);
+            }
+        }
+
+        bookingMetrics.batchConflicts(conflicts);
+
+        if (!admitted.isEmpty()) {
+            long[] ids = insertBatch(cKey, tKey, schedules, admitted, note);
+            List<Object[]> history = new ArrayList<>(admitted.size());
+            java.sql.Timestamp createdAt = java.sql.Timestamp.valueOf(now);
+            for (int k = 0; k < admitted.size(); k++) {
+                Booking.Schedule s = schedules.get(admitted.get(k));
+                outcomes[admitted.get(k)] = BookingSlotOutcome.created(s.getDate(), s.getTime(), ids[k]);
+                history.add(new Object[] {cKey, "Booked with " + trainer.getEmail() + " at " + s, createdAt});
+            }
+            jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, history);
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    private long[] insertBatch(String customerKey, String trainerKey, List<Booking.Schedule> schedules,
+                               List<Integer> admitted, String note) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_BOOKING_SQL, new String[] {"id"})) {
+                for (int i : admitted) {
+                    Booking.Schedule s = schedules.get(i);
+                    ps.setString(1, customerKey);
+                    ps.setString(2, trainerKey);
+                    ps.setObject(3, s.getDate());
+                    ps.setObject(4, s.getTime());
+                    ps.setString(5, note);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                long[] ids = new long[admitted.size()];
+                int k = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (k < ids.length && keys.next()) {
+                        ids[k++] = keys.getLong(1);
+                    }
+                }
+                // Sin un id por fila no se puede informar la reserva creada: se revierte el lote
+                if (k < ids.length) {
+                    throw new DataRetrievalFailureException(
+                            "Expected " + ids.length + " generated booking ids but the driver returned " + k);
+                }
+                return ids;
+            }
+        });
+    }
+
     @Transactional(readOnly = true)
-    public List<Booking> listTrainerBookings(String trainerEmail, LocalDate date) {
+    public List<BookingView> listTrainerBookings(String trainerEmail, LocalDate date) {
+        String key = normalize(trainerEmail);
+        if (key == null) return List.of();
+        return bookingRepository.findTrainerDay(key, date);
+    }
+
+    /**
+     * Agenda del entrenador en [from, to] ordenada por fecha y hora, en un único escaneo del índice.
+     */
+    @Transactional(readOnly = true)
+    public List<BookingView> listTrainerBookings(String trainerEmail, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range is required.");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date.");
+        }
+        if (from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days.");
+        }
         String key = normalize(trainerEmail);
         if (key == null) return List.of();
-        List<Booking> result = bookingRepository.findByTrainer_EmailAndSchedule_Date(key, date);
-        result.sort(Comparator.comparing(b -> b.getSchedule().getTime()));
-        return result;
+        return bookingRepository.findTrainerRange(key, from, to);
+    }
+
+    /**
+     * Semana (lunes a domingo) que contiene {@code anyDay}.
+     */
+    @Transactional(readOnly = true)
+    public List<BookingView> listTrainerWeek(String trainerEmail, LocalDate anyDay) {
+        if (anyDay == null) throw new IllegalArgumentException("Date is required.");
+        LocalDate monday = anyDay.with(java.time.temporal.TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return listTrainerBookings(trainerEmail, monday, monday.plusDays(6));
     }
 
     @Transactional
     public boolean cancelBooking(long bookingId) {
-        if (!bookingRepository.existsById(bookingId)) {
-            throw new IllegalArgumentException("Booking not found: id=" + bookingId);
-        }
-        bookingRepository.deleteById(bookingId);
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found: id=" + bookingId));
+        String tKey = booking.getTrainer().getEmail();
+        Booking.Schedule schedule = booking.getSchedule();
+        bookingRepository.delete(booking);
+        TransactionHooks.afterCommit(() -> slotIndex.release(tKey, schedule.getDate(), schedule.getTime()));
         return true;
     }
 
     @Transactional(readOnly = true)
-    public List<Booking> listBookings() { return bookingRepository.findAll(); }
+    public List<BookingView> listBookings(long afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive.");
+        return bookingRepository.findPageAfter(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Recorre todas las reservas con un cursor: memoria constante sin importar el tamaño de la tabla.
+     */
+    @Transactional(readOnly = true)
+    public void streamBookings(Consumer<BookingView> sink) {
+        try (Stream<BookingView> rows = bookingRepository.streamAll()) {
+            rows.forEach(sink);
+        }
+    }
+
+    /**
+     * Reserva el horario en el índice y lo libera si la transacción no confirma.
+     * Devuelve {@code null} si otro intento ya lo tiene.
+     */
+    private SlotReservation reserveSlot(String trainerKey, LocalDate date, LocalTime time) {
+        if (!slotIndex.tryReserve(trainerKey, date, time)) return null;
+        SlotReservation reservation = new SlotReservation(trainerKey, date, time);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(reservation);
+        }
+        return reservation;
+    }
+
+    private final class SlotReservation implements TransactionSynchronization {
+        private final String trainerKey;
+        private final LocalDate date;
+        private final LocalTime time;
+        private boolean keep;
+
+        private SlotReservation(String trainerKey, LocalDate date, LocalTime time) {
+            this.trainerKey = trainerKey;
+            this.date = date;
+            this.time = time;
+        }
+
+        // La BD confirmó que el horario está ocupado: mantener el bit aunque haya rollback
+        void keep() { this.keep = true; }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED && !keep) {
+                slotIndex.release(trainerKey, date, time);
+            }
+        }
+    }
 
     private String normalize(String email) { return (email == null) ? null : email.toLowerCase().trim(); }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.smartgym.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Acciones sobre estado en memoria (cachés, índices) que solo deben verse si la transacción confirma.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() { }
+
+    /** Ejecuta la acción tras el commit de la transacción actual, o en el acto si no hay ninguna. */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() { action.run(); }
+        });
+    }
+}
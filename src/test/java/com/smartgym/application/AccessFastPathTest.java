@@ -0,0 +1,77 @@
+package com.smartgym.application;
+
+import com.smartgym.model.Customer;
+import com.smartgym.model.Trainer;
+import com.smartgym.domain.AttendanceRecord;
+import com.smartgym.service.ResolvedIdentityCache;
+import com.smartgym.service.ResolvedIdentityCache.ResolvedIdentity;
+import com.smartgym.service.SmartGymService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccessFastPathTest {
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ResolvedIdentityCache identityCache;
+
+    @Test
+    void cachedSwipeIsSingleInsertAndRelinkInvalidates() {
+        String dni = String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 99_999_999));
+        String customer = "swipe-" + dni + "@example.com";
+        String trainer = "coach-" + dni + "@smartgym.com";
+        service.addCustomer(new Customer(customer, "Swipe", 30));
+        service.addTrainer(new Trainer(trainer, "Coach", 40, "Cardio"));
+        ext.registerCustomerIdentity(dni, customer);
+
+        assertTrue(ext.accessByDni(dni).startsWith("Welcome Swipe!"));
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        ext.accessByDni(dni);
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(1, stats.getEntityInsertCount());
+
+        ext.registerTrainerIdentity(dni, trainer);
+        assertTrue(ext.accessByDni(dni).startsWith("Welcome Coach!"));
+    }
+
+    @Test
+    void readerCannotCacheIdentityLoadedBeforeInvalidation() {
+        String dni = String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 99_999_999));
+        var old = new ResolvedIdentity("old-" + dni + "@example.com", AttendanceRecord.Role.CUSTOMER, "Old");
+
+        // Lector: falla y carga; el escritor invalida (afterCommit) antes de que el lector guarde
+        long stamp = identityCache.stamp(dni);
+        identityCache.invalidateDni(dni);
+        identityCache.put(dni, old, stamp);
+        assertNull(identityCache.get(dni));
+
+        stamp = identityCache.stamp(dni);
+        identityCache.invalidateEmail("someone-else@example.com");
+        identityCache.put(dni, old, stamp);
+        assertNull(identityCache.get(dni));
+
+        identityCache.put(dni, old, identityCache.stamp(dni));
+        assertEquals(old, identityCache.get(dni));
+    }
+}
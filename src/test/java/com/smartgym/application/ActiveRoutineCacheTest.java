@@ -0,0 +1,73 @@
+package com.smartgym.application;
+
+import com.smartgym.model.Customer;
+import com.smartgym.service.SmartGymService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ActiveRoutineCacheTest {
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ActiveRoutineCache routineCache;
+
+    @Test
+    void activeRoutineIsCachedAndReplacedOnAssign() {
+        String email = "routine-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        service.addCustomer(new Customer(email, "Routine", 30));
+        var first = ext.assignRandomRoutine(email);
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        var active = ext.activeRoutine(email).orElseThrow();
+        assertEquals(first.getId(), active.routineId());
+        assertEquals(1, stats.getPrepareStatementCount()); // rutina y plan en una consulta
+        assertEquals(6, active.byDayLower().size());
+        assertTrue(active.byDayLower().containsKey("monday"));
+        assertThrows(UnsupportedOperationException.class, () -> active.byDay().put(DayOfWeek.SUNDAY, "Rest"));
+
+        stats.clear();
+        assertSame(active, ext.activeRoutine(email).orElseThrow());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        var second = ext.assignRandomRoutine(email);
+        assertEquals(second.getId(), ext.activeRoutine(email).orElseThrow().routineId());
+    }
+
+    @Test
+    void planReadBeforeAssignIsNotCachedAfterIt() {
+        String email = "routine-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        service.addCustomer(new Customer(email, "Routine", 30));
+        ext.assignRandomRoutine(email);
+        routineCache.invalidate(email);
+
+        // Lector: falla y carga la rutina vigente; una asignación confirma antes de que la guarde
+        long stamp = routineCache.stamp(email);
+        var stale = ext.routineHistory(email, null, 1).get(0);
+        var second = ext.assignRandomRoutine(email);
+        routineCache.put(email, stale, stamp);
+
+        assertNull(routineCache.get(email));
+        assertEquals(second.getId(), ext.activeRoutine(email).orElseThrow().routineId());
+    }
+}
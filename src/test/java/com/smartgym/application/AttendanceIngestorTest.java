@@ -0,0 +1,267 @@
+package com.smartgym.application;
+
+import com.smartgym.domain.AttendanceRecord;
+import com.smartgym.model.Customer;
+import com.smartgym.service.SmartGymService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "smartgym.attendance.ingestion.mode=async",
+        "smartgym.attendance.ingestion.flush-interval-ms=20"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AttendanceIngestorTest {
+
+    @TempDir
+    static Path walDir;
+
+    @DynamicPropertySource
+    static void walDir(DynamicPropertyRegistry registry) {
+        registry.add("smartgym.attendance.ingestion.wal-dir", () -> walDir.resolve("context").toString());
+    }
+
+    @MockitoSpyBean
+    private AttendanceIngestor ingestor;
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void acceptedSwipesAreCheckpointedAndWalIsTruncated() throws Exception {
+        assertTrue(ingestor.isRunning()); // arrancó antes que el servidor web
+        String dni = linkNewCustomer();
+        for (int i = 0; i < 3; i++) {
+            ext.accessByDni(dni);
+        }
+        String email = "wal-" + dni + "@example.com";
+        await(() -> countRows(email) == 3);
+
+        Path wal = walDir.resolve("context/attendance.wal");
+        Path checkpoint = walDir.resolve("context/attendance.checkpoint");
+        await(() -> size(wal) == 0);
+        assertTrue(Long.parseLong(Files.readString(checkpoint).trim()) >= 3);
+    }
+
+    @Test
+    void restartReplaysWalEntriesAfterCheckpoint() throws Exception {
+        Path dir = Files.createDirectories(walDir.resolve("replay"));
+        // Un "|" en el email no rompe la línea del WAL
+        String email = "re|play-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        LocalDateTime at = LocalDateTime.now().withNano(0);
+        String torn = swipe(4, email, at.plusMinutes(3)).toLine();
+        // Crash tras persistir el 1: el 2 y el 3 solo están en el WAL, la última línea quedó cortada
+        Files.writeString(dir.resolve("attendance.wal"),
+                swipe(1, email, at).toLine() +
+                swipe(2, email, at.plusMinutes(1)).toLine() +
+                swipe(3, email, at.plusMinutes(2)).toLine() +
+                torn.substring(0, torn.length() - 5));
+        Files.writeString(dir.resolve("attendance.checkpoint"), "1");
+
+        var restarted = newIngestor(dir, 100, new TransactionTemplate(txManager));
+        restarted.start();
+        try {
+            assertEquals(2, countRows(email));
+            assertEquals(0, Files.size(dir.resolve("attendance.wal")));
+            assertEquals("3", Files.readString(dir.resolve("attendance.checkpoint")).trim());
+
+            restarted.submit(email, AttendanceRecord.Role.CUSTOMER, at.plusMinutes(3));
+            // El checkpoint se escribe tras confirmar el lote
+            await(() -> countRows(email) == 3 && read(dir.resolve("attendance.checkpoint")).equals("4"));
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void concurrentSwipesShareWalSyncsAndAllArePersisted() throws Exception {
+        Path dir = Files.createDirectories(walDir.resolve("group-commit"));
+        String email = "group-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        var grouped = newIngestor(dir, 1000, new TransactionTemplate(txManager));
+        grouped.start();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Object>> swipes = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                LocalDateTime at = LocalDateTime.now().plusSeconds(i);
+                swipes.add(Executors.callable(() -> grouped.submit(email, AttendanceRecord.Role.CUSTOMER, at)));
+            }
+            for (Future<Object> f : pool.invokeAll(swipes)) f.get(10, TimeUnit.SECONDS);
+            await(() -> countRows(email) == 400);
+        } finally {
+            pool.shutdownNow();
+            grouped.stop();
+        }
+    }
+
+    @Test
+    void rowRejectedByTheDatabaseIsDeadLetteredAndTheWriterMovesOn() throws Exception {
+        Path dir = Files.createDirectories(walDir.resolve("dead-letter"));
+        String email = "dead-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        String tooLong = "x".repeat(200) + "@example.com"; // la columna admite 180
+        var writer = newIngestor(dir, 100, new TransactionTemplate(txManager));
+        writer.start();
+        try {
+            LocalDateTime at = LocalDateTime.now();
+            writer.submit(email, AttendanceRecord.Role.CUSTOMER, at);
+            writer.submit(tooLong, AttendanceRecord.Role.CUSTOMER, at);
+            writer.submit(email, AttendanceRecord.Role.CUSTOMER, at.plusMinutes(1));
+
+            await(() -> countRows(email) == 2 && read(dir.resolve("attendance.checkpoint")).equals("3"));
+            assertTrue(Files.readString(dir.resolve("attendance.dead")).contains(tooLong));
+            assertEquals(0, writer.pending());
+
+            writer.submit(email, AttendanceRecord.Role.CUSTOMER, at.plusMinutes(2)); // el escritor sigue
+            await(() -> countRows(email) == 3);
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void fullQueueRejectsWithBackpressure() throws Exception {
+        Path dir = Files.createDirectories(walDir.resolve("backpressure"));
+        String email = "full-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        CountDownLatch release = new CountDownLatch(1);
+        // El escritor queda bloqueado en el primer lote: el permiso de la cola no se libera
+        var blocked = new TransactionTemplate(txManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.execute(action);
+            }
+        };
+        var small = newIngestor(dir, 1, blocked);
+        small.start();
+        try {
+            small.submit(email, AttendanceRecord.Role.CUSTOMER, LocalDateTime.now());
+            assertThrows(BackpressureException.class,
+                    () -> small.submit(email, AttendanceRecord.Role.CUSTOMER, LocalDateTime.now()));
+
+            release.countDown();
+            await(() -> countRows(email) == 1);
+            small.submit(email, AttendanceRecord.Role.CUSTOMER, LocalDateTime.now()); // hay sitio otra vez
+            await(() -> countRows(email) == 2);
+        } finally {
+            release.countDown();
+            small.stop();
+        }
+    }
+
+    @Test
+    void backpressureIsServiceUnavailableWithRetryAfter() throws Exception {
+        String dni = linkNewCustomer();
+        doThrow(new BackpressureException("Attendance queue is full, retry shortly"))
+                .when(ingestor).submit(any(), any(), any());
+
+        mvc.perform(post("/api/v1/access").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dni\":\"" + dni + "\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void walLinesKeepPipesInEmailsAndLegacyLinesStillParse() {
+        LocalDateTime at = LocalDateTime.of(2030, 1, 15, 8, 0);
+        assertEquals(swipe(7, "old@example.com", at),
+                AttendanceIngestor.Swipe.parse("7|old@example.com|CUSTOMER|" + at));
+        assertEquals(swipe(8, "a|b@example.com", at),
+                AttendanceIngestor.Swipe.parse(swipe(8, "a|b@example.com", at).toLine().trim()));
+    }
+
+    private static AttendanceIngestor.Swipe swipe(long seq, String email, LocalDateTime at) {
+        return new AttendanceIngestor.Swipe(seq, email, AttendanceRecord.Role.CUSTOMER, at);
+    }
+
+    private AttendanceIngestor newIngestor(Path dir, int capacity, TransactionTemplate tx) {
+        return new AttendanceIngestor("async", capacity, 100, 20, 50, dir.toString(), jdbcTemplate, tx);
+    }
+
+    private String linkNewCustomer() {
+        String dni = String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 99_999_999));
+        String email = "wal-" + dni + "@example.com";
+        service.addCustomer(new Customer(email, "Wal", 30));
+        ext.registerCustomerIdentity(dni, email);
+        return dni;
+    }
+
+    private int countRows(String email) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from attendance_records where email = ?", Integer.class, email);
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.readString(file).trim();
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 s");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartgym.application;
+
+import com.smartgym.model.Customer;
+import com.smartgym.model.Trainer;
+import com.smartgym.service.SmartGymService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkExporterTest {
+
+    @Autowired
+    private BulkExporter exporter;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Test
+    void bookingsStreamAsCsvAndNdjsonFilteredByDate() {
+        String p = "exp" + ThreadLocalRandom.current().nextInt(1_000_000);
+        String customer = p + "@example.com";
+        String trainer = p + "-coach@smartgym.com";
+        service.addCustomer(new Customer(customer, "Exporter", 30));
+        service.addTrainer(new Trainer(trainer, "Coach", 40, "Strength"));
+        LocalDate day = LocalDate.now().plusDays(3);
+        service.createBooking(customer, trainer, day, LocalTime.of(9, 0), "Legs, \"heavy\"");
+        service.createBooking(customer, trainer, day.plusDays(7), LocalTime.of(9, 0));
+
+        List<String> csv = lines(BulkExporter.Dataset.BOOKINGS, BulkExporter.Format.CSV, day, day);
+        assertEquals("id,customer_email,trainer_email,date,time,note", csv.get(0));
+        List<String> mine = csv.stream().filter(l -> l.contains(customer)).toList();
+        assertEquals(1, mine.size());
+        assertTrue(mine.get(0).endsWith("," + customer + "," + trainer + "," + day + ",09:00,\"Legs, \"\"heavy\"\"\""));
+
+        List<String> json = lines(BulkExporter.Dataset.BOOKINGS, BulkExporter.Format.NDJSON, day.plusDays(1), null)
+                .stream().filter(l -> l.contains(customer)).toList();
+        assertEquals(1, json.size());
+        assertTrue(json.get(0).startsWith("{\"id\":"));
+        assertTrue(json.get(0).contains("\"date\":\"" + day.plusDays(7) + "\""));
+        assertTrue(json.get(0).contains("\"note\":null"));
+    }
+
+    @Test
+    void attendanceAndProgressUseTheRecordDay() {
+        String p = "expa" + ThreadLocalRandom.current().nextInt(1_000_000);
+        String dni = String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 90_000_000));
+        service.addCustomer(new Customer(p + "@example.com", "Att", 30));
+        ext.registerCustomerIdentity(dni, p + "@example.com");
+        ext.accessByDni(dni);
+        ext.addProgressByDni(dni, 80.5, 20, 40);
+
+        LocalDate today = LocalDate.now();
+        assertEquals(1, lines(BulkExporter.Dataset.ATTENDANCE, BulkExporter.Format.NDJSON, today, today).stream()
+                .filter(l -> l.contains(p + "@example.com") && l.contains("\"role\":\"CUSTOMER\"")).count());
+        assertEquals(0, lines(BulkExporter.Dataset.ATTENDANCE, BulkExporter.Format.NDJSON, null, today.minusDays(1)).stream()
+                .filter(l -> l.contains(p + "@example.com")).count());
+        assertTrue(lines(BulkExporter.Dataset.PROGRESS, BulkExporter.Format.CSV, today, null).stream()
+                .anyMatch(l -> l.endsWith("," + p + "@example.com," + today + ",80.5,20.0,40.0")));
+    }
+
+    @Test
+    void invertedRangeIsRejectedBeforeWriting() {
+        var out = new ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class, () -> exporter.export(BulkExporter.Dataset.PROGRESS,
+                BulkExporter.Format.CSV, LocalDate.now(), LocalDate.now().minusDays(1), out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void csvCellsRoundTripThroughTheImporterParser() {
+        String line = String.join(",", BulkExporter.csvCell("plain"), BulkExporter.csvCell("a,b"),
+                BulkExporter.csvCell("say \"hi\""), BulkExporter.csvCell(""));
+        assertEquals(List.of("plain", "a,b", "say \"hi\"", ""), BulkImporter.parseCsvLine(line));
+    }
+
+    private List<String> lines(BulkExporter.Dataset dataset, BulkExporter.Format format, LocalDate from, LocalDate to) {
+        var out = new ByteArrayOutputStream();
+        exporter.export(dataset, format, from, to, out);
+        return Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+}
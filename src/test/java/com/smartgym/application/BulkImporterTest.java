@@ -0,0 +1,96 @@
+package com.smartgym.application;
+
+import com.smartgym.model.Customer;
+import com.smartgym.service.SmartGymService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkImporterTest {
+
+    @Autowired
+    private BulkImporter importer;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Test
+    void csvUpsertsDedupesAndReportsRowErrors() {
+        String p = "imp" + ThreadLocalRandom.current().nextInt(1_000_000);
+        int dni = ThreadLocalRandom.current().nextInt(10_000_000, 90_000_000);
+        service.addCustomer(new Customer(p + "-a@example.com", "Old Name", 20));
+        ext.registerCustomerIdentity(String.valueOf(dni), p + "-a@example.com");
+        assertTrue(ext.accessByDni(String.valueOf(dni)).startsWith("Welcome Old Name!")); // queda en caché
+
+        String csv = "\uFEFFemail,name,age\n" +
+                p + "-a@example.com,\"Smith, Ann\",31\n" +
+                p + "-b@example.com,Bob,40\n" +
+                "\n" +
+                p + "-B@example.com,Bob Again,41\n" +
+                "not-an-email,Bad,30\n" +
+                p + "-c@example.com,Carl,abc\n";
+        var report = importer.importFrom(BulkImporter.Kind.CUSTOMERS, BulkImporter.Format.CSV, new StringReader(csv));
+
+        assertEquals(5, report.rowsRead());
+        assertEquals(2, report.imported());
+        assertEquals(1, report.duplicates());
+        assertEquals(2, report.rejected());
+        assertEquals(List.of(5L, 6L, 7L), report.errors().stream().map(BulkImporter.RowError::line).toList());
+        assertEquals("Duplicate of line 3", report.errors().get(0).message());
+
+        assertEquals("Smith, Ann", service.findCustomer(p + "-a@example.com").orElseThrow().getName());
+        assertEquals(40, service.findCustomer(p + "-b@example.com").orElseThrow().getAge());
+        assertTrue(ext.accessByDni(String.valueOf(dni)).startsWith("Welcome Smith, Ann!"));
+    }
+
+    @Test
+    void rowRejectedByTheDatabaseIsReportedAndTheRestOfItsBatchIsWritten() {
+        String p = "db" + ThreadLocalRandom.current().nextInt(1_000_000);
+        // Email válido para la API pero más largo que la columna (180)
+        String tooLong = p + "@" + "a".repeat(60) + "." + "b".repeat(60) + "." + "c".repeat(60) + ".com";
+        String csv = "email,name,age\n" +
+                p + "-a@example.com,Ann,31\n" +
+                tooLong + ",Long,40\n" +
+                p + "-c@example.com,Carl,50\n";
+        var report = importer.importFrom(BulkImporter.Kind.CUSTOMERS, BulkImporter.Format.CSV, new StringReader(csv));
+
+        assertEquals(3, report.rowsRead());
+        assertEquals(2, report.imported());
+        assertEquals(1, report.rejected());
+        assertEquals(3L, report.errors().get(0).line());
+        assertTrue(report.errors().get(0).message().startsWith("Rejected by the database"));
+        assertTrue(service.findCustomer(p + "-a@example.com").isPresent());
+        assertTrue(service.findCustomer(p + "-c@example.com").isPresent());
+    }
+
+    @Test
+    void ndjsonIdentitiesSkipMalformedLines() {
+        String p = "nd" + ThreadLocalRandom.current().nextInt(1_000_000);
+        int dni = ThreadLocalRandom.current().nextInt(10_000_000, 90_000_000);
+        String ndjson = "{\"dni\":\"" + dni + "\",\"email\":\"" + p + "@example.com\"}\n" +
+                "{not json}\n" +
+                "{\"dni\":\"123\",\"email\":\"" + p + "@example.com\"}\n";
+        var report = importer.importFrom(BulkImporter.Kind.IDENTITIES, BulkImporter.Format.NDJSON, new StringReader(ndjson));
+
+        assertEquals(1, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals(p + "@example.com", ext.emailByDni(String.valueOf(dni)).orElseThrow());
+    }
+
+    @Test
+    void csvLineParsingHandlesQuotes() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), BulkImporter.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\","));
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartgym.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyTrackerTest {
+
+    private final OccupancyTracker tracker = new OccupancyTracker(90, 240, null, null);
+
+    @Test
+    void countsOnlySwipesInsideWindow() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 15, 18, 30);
+        tracker.record(now.minusMinutes(120));
+        tracker.record(now.minusMinutes(89));
+        tracker.record(now.minusMinutes(1));
+        tracker.record(now);
+
+        assertEquals(3, tracker.swipesInLastMinutes(now, 90));
+        assertEquals(2, tracker.swipesInLastMinutes(now, 2));
+    }
+
+    @Test
+    void recycledBucketsDoNotLeakOldCounts() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 15, 18, 30);
+        tracker.record(now.minusDays(1)); // mismo cubo del anillo, otro minuto
+        tracker.record(now);
+        assertEquals(1, tracker.swipesInLastMinutes(now, 1));
+    }
+
+    @Test
+    void hourlyHistogramFromMemory() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(2);
+        tracker.record(hour.plusMinutes(5));
+        tracker.record(hour.plusMinutes(59));
+        tracker.record(hour.plusHours(1));
+
+        var histogram = tracker.hourly(hour, hour.plusHours(1));
+        assertEquals(2, histogram.size());
+        assertEquals(2L, histogram.get(hour));
+        assertEquals(1L, histogram.get(hour.plusHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> tracker.hourly(hour, hour.minusHours(1)));
+    }
+
+    @Test
+    void peopleInsideAreEntriesWithoutExit() {
+        var visits = new VisitSessionizer(240, 60, null, tracker);
+        LocalDateTime now = LocalDateTime.of(2030, 1, 15, 18, 30);
+        visits.record("ana@example.com", now.minusMinutes(60));
+        visits.record("ana@example.com", now.minusMinutes(10)); // salida
+        visits.record("leo@example.com", now.minusMinutes(30));
+        visits.record("leo@example.com", now.minusMinutes(30).plusSeconds(10)); // doble pasada
+        visits.record("eva@example.com", now.minusMinutes(300)); // entrada ya expirada
+
+        assertEquals(1, tracker.openEntriesInLastMinutes(now, 240));
+
+        visits.record("eva@example.com", now); // no emparejada: abre una entrada nueva
+        assertEquals(2, tracker.openEntriesInLastMinutes(now, 240));
+    }
+}
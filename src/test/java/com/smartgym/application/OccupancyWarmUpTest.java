@@ -0,0 +1,45 @@
+package com.smartgym.application;
+
+import com.smartgym.repository.AttendanceHourlyRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OccupancyWarmUpTest {
+
+    @Autowired
+    private OccupancyTracker occupancy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceHourlyRollupRepository rollupRepository;
+
+    @Test
+    void warmUpRunsBeforeTrafficAndDoesNotCountLiveSwipesTwice() {
+        assertTrue(occupancy.isRunning());
+        // Un minuto sin otros accesos de los tests, dentro del anillo de 24 h
+        LocalDateTime at = LocalDateTime.now().plusHours(12).plusMinutes(7).truncatedTo(ChronoUnit.MINUTES);
+        jdbcTemplate.update("insert into attendance_records (email, role, timestamp) values (?, 'CUSTOMER', ?)",
+                "warm-up@example.com", Timestamp.valueOf(at));
+        int rows = jdbcTemplate.queryForObject(
+                "select count(*) from attendance_records where timestamp = ?", Integer.class, Timestamp.valueOf(at));
+
+        var tracker = new OccupancyTracker(90, 240, jdbcTemplate, rollupRepository);
+        tracker.record(at); // registrado en vivo tras el commit
+        tracker.warmUp();
+
+        assertEquals(rows, tracker.swipesInLastMinutes(at, 1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartgym.application;
+
+import com.smartgym.domain.ProgressRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgressSeriesTest {
+
+    private final LocalDate monday = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void weeklyBucketsAggregateEachMetric() {
+        List<ProgressRecord> series = List.of(
+                record(monday, 80), record(monday.plusDays(3), 82),
+                record(monday.plusDays(7), 79));
+
+        var weeks = ProgressSeries.bucket(series, ProgressSeries.Bucket.WEEK);
+        assertEquals(2, weeks.size());
+        assertEquals(monday, weeks.get(0).start());
+        assertEquals(monday.plusDays(6), weeks.get(0).end());
+        assertEquals(2, weeks.get(0).count());
+        assertEquals(81, weeks.get(0).weightKg().avg(), 1e-9);
+        assertEquals(80, weeks.get(0).weightKg().min(), 1e-9);
+        assertEquals(82, weeks.get(0).weightKg().max(), 1e-9);
+        assertEquals(79, weeks.get(1).weightKg().avg(), 1e-9);
+    }
+
+    @Test
+    void lttbKeepsEdgesAndPeaks() {
+        List<ProgressRecord> series = new ArrayList<>();
+        for (int day = 0; day < 1000; day++) {
+            series.add(record(monday.plusDays(day), day == 500 ? 120 : 80));
+        }
+
+        var sampled = ProgressSeries.lttb(series, 100, ProgressSeries.Metric.WEIGHT);
+        assertEquals(100, sampled.size());
+        assertSame(series.get(0), sampled.get(0));
+        assertSame(series.get(999), sampled.get(99));
+        assertTrue(sampled.stream().anyMatch(r -> r.getWeightKg() == 120));
+        for (int k = 1; k < sampled.size(); k++) {
+            assertTrue(sampled.get(k).getDate().isAfter(sampled.get(k - 1).getDate()));
+        }
+
+        assertSame(series, ProgressSeries.lttb(series, 1000, ProgressSeries.Metric.WEIGHT));
+    }
+
+    private static ProgressRecord record(LocalDate date, double weight) {
+        return new ProgressRecord(null, date, weight, 20, 40);
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartgym.application;
+
+import com.smartgym.model.Customer;
+import com.smartgym.service.SmartGymService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProgressSummaryTest {
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private ProgressSummaryMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void addMaintainsAggregatesAndReturnsSavedRecord() {
+        String dni = linkNewCustomer();
+
+        var saved = ext.addProgressByDni(dni, 80.5, 20.0, 40.0);
+        assertNotNull(saved.getId());
+        assertEquals(LocalDate.now(), saved.getDate());
+
+        var summary = ext.progressSummaryByDni(dni);
+        assertEquals(1, summary.getRecords());
+        assertEquals(80.5, summary.getAvgWeightKg(), 1e-9);
+        assertEquals(LocalDate.now(), summary.getLatestDate());
+
+        // Mismo día: se rechaza y los agregados no cambian
+        assertThrows(DataIntegrityViolationException.class, () -> ext.addProgressByDni(dni, 70, 10, 30));
+        assertEquals(1, ext.progressSummaryByDni(dni).getRecords());
+    }
+
+    @Test
+    void backfillBuildsSummaryFromExistingHistory() {
+        String dni = linkNewCustomer();
+        String email = ext.emailByDni(dni).orElseThrow();
+        LocalDate day = LocalDate.of(2030, 3, 1);
+        double[][] rows = {{90, 25, 35}, {86, 23, 37}, {88, 24, 36}};
+        for (int i = 0; i < rows.length; i++) {
+            jdbcTemplate.update("insert into progress_records (customer_email, date, weight_kg, body_fat_pct, muscle_pct) " +
+                    "values (?, ?, ?, ?, ?)", email, Date.valueOf(day.plusDays(i)), rows[i][0], rows[i][1], rows[i][2]);
+        }
+
+        migration.backfill();
+
+        var summary = ext.progressSummaryByDni(dni);
+        assertEquals(3, summary.getRecords());
+        assertEquals(88.0, summary.getAvgWeightKg(), 1e-9);
+        assertEquals(86.0, summary.getWeightMin(), 1e-9);
+        assertEquals(90.0, summary.getWeightMax(), 1e-9);
+        assertEquals(day.plusDays(2), summary.getLatestDate());
+        assertEquals(88.0, summary.getLatestWeightKg(), 1e-9);
+        var recent = ext.recentProgressByDni(dni, 2);
+        assertEquals(2, recent.size());
+        assertEquals(day.plusDays(1), recent.get(0).getDate());
+    }
+
+    @Test
+    void startupBackfillRunsBeforeTrafficOnce() {
+        assertTrue(migration.isRunning());
+        migration.start(); // ya marcada: no vuelve a ejecutarse
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from data_migrations where name = ?", Integer.class, ProgressSummaryMigration.MIGRATION));
+    }
+
+    private String linkNewCustomer() {
+        String dni = String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 99_999_999));
+        String email = "progress-" + dni + "@example.com";
+        service.addCustomer(new Customer(email, "Progress", 30));
+        ext.registerCustomerIdentity(dni, email);
+        return dni;
+    }
+}
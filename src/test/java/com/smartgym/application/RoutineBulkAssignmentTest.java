@@ -0,0 +1,83 @@
+package com.smartgym.application;
+
+import com.smartgym.domain.RoutineAssignmentJob;
+import com.smartgym.model.Customer;
+import com.smartgym.service.SmartGymService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RoutineBulkAssignmentTest {
+
+    @Autowired
+    private RoutineBulkAssignmentJob job;
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void assignsOneRoutinePerCustomerAndResumesOnlyPending() throws InterruptedException {
+        String prefix = "bulk-" + ThreadLocalRandom.current().nextInt(1_000_000) + "-";
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            String email = prefix + i + "@example.com";
+            service.addCustomer(new Customer(email, "Bulk", 30));
+            emails.add(email);
+        }
+        ext.assignRandomRoutine(emails.get(0));
+        long before = ext.activeRoutine(emails.get(0)).orElseThrow().routineId(); // queda en caché
+
+        long jobId = job.start(null, 7).getId();
+        awaitCompletion(jobId);
+
+        for (String email : emails) assertEquals(1, routinesOfJob(email, jobId));
+        var active = ext.activeRoutine(emails.get(0)).orElseThrow();
+        assertNotEquals(before, active.routineId());
+        assertEquals(6, active.byDayLower().size());
+        assertEquals(RoutineAssignmentJob.Status.COMPLETED, job.progress(jobId).job().getStatus());
+
+        // Simula un corte: faltan las rutinas de algunos clientes y el job quedó interrumpido
+        List<String> lost = emails.subList(20, 25);
+        for (String email : lost) {
+            jdbcTemplate.update("delete from routine_plan where routine_id in " +
+                    "(select id from routines where customer_email = ? and assignment_job_id = ?)", email, jobId);
+            jdbcTemplate.update("delete from routines where customer_email = ? and assignment_job_id = ?", email, jobId);
+        }
+        jdbcTemplate.update("update routine_assignment_jobs set status = 'INTERRUPTED' where id = ?", jobId);
+
+        job.resume(jobId);
+        awaitCompletion(jobId);
+        for (String email : emails) assertEquals(1, routinesOfJob(email, jobId));
+    }
+
+    private int routinesOfJob(String email, long jobId) {
+        Integer n = jdbcTemplate.queryForObject(
+                "select count(*) from routines where customer_email = ? and assignment_job_id = ?", Integer.class, email, jobId);
+        return n == null ? 0 : n;
+    }
+
+    private void awaitCompletion(long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (job.progress(jobId).job().getStatus() == RoutineAssignmentJob.Status.RUNNING) {
+            assertTrue(System.currentTimeMillis() < deadline, "job did not finish in time");
+            Thread.sleep(50);
+        }
+        assertNull(job.progress(jobId).job().getError());
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartgym.application;
+
+import com.smartgym.model.Customer;
+import com.smartgym.service.SmartGymService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RoutineHistoryReadPathTest {
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void historyPageLoadsRoutinesAndPlansInTwoStatements() {
+        String email = "history-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        service.addCustomer(new Customer(email, "History", 30));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) ids.add(ext.assignRandomRoutine(email).getId());
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        var page = ext.routineHistory(email, null, 20);
+        page.forEach(r -> assertEquals(6, r.byDayLower().size()));
+
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getCollectionFetchCount()); // planes vía fetch join, no perezosos
+        assertEquals(20, page.size());
+        assertEquals(ids.get(10), page.get(0).routineId());
+        assertEquals(ids.get(29), page.get(19).routineId()); // la activa al final
+
+        stats.clear();
+        var older = ext.routineHistory(email, page.get(0).routineId(), 20);
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertEquals(ids.subList(0, 10), older.stream().map(RoutinePlan::routineId).toList());
+    }
+}
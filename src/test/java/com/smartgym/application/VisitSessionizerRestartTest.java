@@ -0,0 +1,54 @@
+package com.smartgym.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VisitSessionizerRestartTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void restartAppliesSwipesAfterTheLastFlushOnce() {
+        String email = "restart-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        // Posterior a cualquier otro acceso ya volcado en la base compartida
+        LocalDateTime t0 = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        jdbcTemplate.update("insert into member_visit_stats (email, visits, total_visit_seconds, unmatched_entries, " +
+                        "last_visit_start, last_visit_end, open_entry_at, last_swipe_at) values (?, 1, 3600, 0, ?, ?, null, ?)",
+                email, ts(t0), ts(t0.plusMinutes(60)), ts(t0.plusMinutes(60)));
+        // Los dos primeros ya están en las estadísticas; los dos últimos llegaron tras el volcado (o del WAL)
+        for (LocalDateTime at : new LocalDateTime[] {t0, t0.plusMinutes(60), t0.plusMinutes(120), t0.plusMinutes(150)}) {
+            jdbcTemplate.update("insert into attendance_records (email, role, timestamp) values (?, 'CUSTOMER', ?)",
+                    email, ts(at));
+        }
+
+        var stats = restart().stats(email).orElseThrow();
+        assertEquals(2, stats.visits());
+        assertEquals(2 * 3600 - 30 * 60, stats.totalVisitSeconds());
+        assertNull(stats.openEntryAt());
+        assertEquals(t0.plusMinutes(150), stats.lastSwipeAt());
+
+        // El volcado del arranque fija el nuevo punto: un segundo reinicio no repite accesos
+        assertEquals(stats, restart().stats(email).orElseThrow());
+    }
+
+    private VisitSessionizer restart() {
+        var sessionizer = new VisitSessionizer(240, 60, jdbcTemplate, new OccupancyTracker(90, 240, null, null));
+        sessionizer.warmUp();
+        return sessionizer;
+    }
+
+    private static Timestamp ts(LocalDateTime at) { return Timestamp.valueOf(at); }
+}
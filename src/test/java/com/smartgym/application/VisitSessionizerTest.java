@@ -0,0 +1,39 @@
+package com.smartgym.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisitSessionizerTest {
+
+    private final VisitSessionizer sessionizer = new VisitSessionizer(240, 60, null, new OccupancyTracker(90, 240, null, null));
+    private final LocalDateTime morning = LocalDateTime.of(2030, 1, 15, 8, 0);
+
+    @Test
+    void pairsEntryAndExitIntoVisits() {
+        sessionizer.record("ana@example.com", morning);
+        sessionizer.record("ana@example.com", morning.plusMinutes(60));
+        sessionizer.record("ana@example.com", morning.plusHours(10));
+        sessionizer.record("ana@example.com", morning.plusHours(10).plusMinutes(30));
+
+        var stats = sessionizer.stats("ana@example.com").orElseThrow();
+        assertEquals(2, stats.visits());
+        assertEquals(45 * 60, stats.averageVisitSeconds());
+        assertEquals(morning.plusHours(10), stats.lastVisitStart());
+        assertNull(stats.openEntryAt());
+    }
+
+    @Test
+    void expiredEntryIsUnmatchedAndDoubleSwipeIgnored() {
+        sessionizer.record("leo@example.com", morning);
+        sessionizer.record("leo@example.com", morning.plusHours(5)); // más que el máximo: nueva entrada
+        sessionizer.record("leo@example.com", morning.plusHours(5).plusSeconds(10)); // doble pasada
+
+        var stats = sessionizer.stats("leo@example.com").orElseThrow();
+        assertEquals(0, stats.visits());
+        assertEquals(1, stats.unmatchedEntries());
+        assertEquals(morning.plusHours(5), stats.openEntryAt());
+    }
+}
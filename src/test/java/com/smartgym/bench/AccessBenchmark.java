@@ -0,0 +1,59 @@
+package com.smartgym.bench;
+
+import com.smartgym.application.GymExtensions;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Torniquete: acceso con un DNI vinculado al azar (caché de identidades + insert de asistencia)
+ * y con un DNI desconocido (rechazo por el filtro de identidades). Con 8 hilos se mide la
+ * contención sobre los contadores de ocupación y visitas.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class App {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        ConfigurableApplicationContext ctx;
+        GymExtensions ext;
+
+        @Setup(Level.Trial)
+        public void start() {
+            ctx = BenchApp.start("access", size);
+            ext = ctx.getBean(GymExtensions.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() { ctx.close(); }
+    }
+
+    @Benchmark
+    public String accessKnownDni(App app) {
+        return app.ext.accessByDni(BenchApp.dni(ThreadLocalRandom.current().nextInt(app.size)));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String accessKnownDni8Threads(App app) {
+        return accessKnownDni(app);
+    }
+
+    @Benchmark
+    public Object accessUnknownDni(App app) {
+        try {
+            return app.ext.accessByDni(String.valueOf(90_000_000 + ThreadLocalRandom.current().nextInt(1_000_000)));
+        } catch (IllegalArgumentException expected) {
+            return expected;
+        }
+    }
+}
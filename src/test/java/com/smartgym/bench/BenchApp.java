@@ -0,0 +1,108 @@
+package com.smartgym.bench;
+
+import com.smartgym.SmartGymApplication;
+import com.smartgym.application.BulkImporter;
+import com.smartgym.application.ProgressSummaryMigration;
+import com.smartgym.service.BookingSlotIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringReader;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Arranca la aplicación sobre un H2 en memoria propio y la siembra con {@code size} clientes:
+ * DNI vinculados, entrenadores (uno cada 100 clientes), 60 días de agenda futura por entrenador
+ * y un año de progreso semanal para los primeros 5000 clientes. Sin servidor web.
+ */
+final class BenchApp {
+    static final int BOOKED_DAYS = 60;
+    static final int[] BOOKED_HOURS = {8, 10, 12, 14, 16, 18};
+    static final int PROGRESS_CUSTOMERS = 5_000;
+    static final int PROGRESS_WEEKS = 52;
+
+    private BenchApp() { }
+
+    static String member(int i) { return "member-" + i + "@bench.local"; }
+    static String dni(int i) { return String.valueOf(10_000_000 + i); }
+    static String trainer(int i) { return "coach-" + i + "@bench.local"; }
+    static int trainers(int size) { return Math.max(10, size / 100); }
+
+    static ConfigurableApplicationContext start(String name, int size) {
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(SmartGymApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + "-" + size + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "spring.main.banner-mode=off")
+                .run();
+        seed(ctx, size);
+        return ctx;
+    }
+
+    private static void seed(ConfigurableApplicationContext ctx, int size) {
+        BulkImporter importer = ctx.getBean(BulkImporter.class);
+        JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+
+        importCsv(importer, BulkImporter.Kind.CUSTOMERS, "email,name,age", size, i -> member(i) + ",Member " + i + "," + (18 + i % 50));
+        importCsv(importer, BulkImporter.Kind.IDENTITIES, "dni,email", size, i -> dni(i) + "," + member(i));
+        importCsv(importer, BulkImporter.Kind.TRAINERS, "email,name,age,specialty", trainers(size),
+                i -> trainer(i) + ",Coach " + i + ",35,Strength");
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        List<Object[]> bookings = new ArrayList<>();
+        for (int t = 0; t < trainers(size); t++) {
+            for (int d = 0; d < BOOKED_DAYS; d++) {
+                for (int h : BOOKED_HOURS) {
+                    bookings.add(new Object[] {member((t * 7919 + d * 31 + h) % size), trainer(t),
+                            Date.valueOf(firstDay.plusDays(d)), Time.valueOf(LocalTime.of(h, 0))});
+                    if (bookings.size() == 10_000) flush(jdbc, bookings);
+                }
+            }
+        }
+        flush(jdbc, bookings);
+        ctx.getBean(BookingSlotIndex.class).warmUp();
+
+        List<Object[]> progress = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int c = 0; c < Math.min(size, PROGRESS_CUSTOMERS); c++) {
+            for (int w = 1; w <= PROGRESS_WEEKS; w++) {
+                progress.add(new Object[] {member(c), Date.valueOf(today.minusWeeks(w)),
+                        80 - w * 0.1, 25 - w * 0.05, 35 + w * 0.05});
+            }
+            if (progress.size() >= 10_000) {
+                jdbc.batchUpdate("insert into progress_records (customer_email, date, weight_kg, body_fat_pct, muscle_pct) " +
+                        "values (?, ?, ?, ?, ?)", progress);
+                progress.clear();
+            }
+        }
+        if (!progress.isEmpty()) {
+            jdbc.batchUpdate("insert into progress_records (customer_email, date, weight_kg, body_fat_pct, muscle_pct) " +
+                    "values (?, ?, ?, ?, ?)", progress);
+        }
+        ctx.getBean(ProgressSummaryMigration.class).backfill();
+    }
+
+    static void importCsv(BulkImporter importer, BulkImporter.Kind kind, String header, int rows, IntFunction<String> row) {
+        StringBuilder csv = new StringBuilder(header).append('\n');
+        for (int i = 0; i < rows; i++) csv.append(row.apply(i)).append('\n');
+        var report = importer.importFrom(kind, BulkImporter.Format.CSV, new StringReader(csv.toString()));
+        if (report.rejected() > 0) throw new IllegalStateException("Seed rejected rows: " + report.errors());
+    }
+
+    private static void flush(JdbcTemplate jdbc, List<Object[]> bookings) {
+        if (bookings.isEmpty()) return;
+        jdbc.batchUpdate("insert into bookings (customer_email, trainer_email, date, time) values (?, ?, ?, ?)", bookings);
+        bookings.clear();
+    }
+}
@@ -0,0 +1,61 @@
+package com.smartgym.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Punto de entrada del perfil {@code bench}. Acepta los argumentos habituales de JMH
+ * (filtro de benchmarks, {@code -p size=1000}, {@code -f}, {@code -wi}...), añade el perfilador
+ * de GC y deja los resultados completos en {@code target/jmh-result.json} para comparar con una
+ * línea base. Al final imprime un resumen: ops/s, p99 y bytes asignados por operación.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() { }
+
+    public static void main(String[] args) throws Exception {
+        var cli = new CommandLineOptions(args);
+        var builder = new OptionsBuilder().parent(cli);
+        if (cli.getIncludes().isEmpty()) builder.include("com\\.smartgym\\.bench\\..*");
+        var options = builder
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        printSummary(new Runner(options).run());
+    }
+
+    private static void printSummary(Collection<RunResult> results) {
+        // benchmark + parámetros → [ops/s, p99 µs, B/op]
+        Map<String, double[]> rows = new TreeMap<>();
+        for (RunResult r : results) {
+            var params = r.getParams();
+            String key = params.getBenchmark().replace("com.smartgym.bench.", "")
+                    + params.getParamsKeys().stream().map(k -> " " + k + "=" + params.getParam(k)).reduce("", String::concat);
+            double[] row = rows.computeIfAbsent(key, k -> new double[] {Double.NaN, Double.NaN, Double.NaN});
+            Result<?> primary = r.getPrimaryResult();
+            switch (params.getMode()) {
+                case Throughput -> row[0] = primary.getScore() * 1000; // ops/ms → ops/s
+                case SampleTime -> row[1] = primary.getStatistics().getPercentile(99) * 1000; // ms → µs
+                default -> { }
+            }
+            Result<?> alloc = r.getSecondaryResults().get("·gc.alloc.rate.norm");
+            if (alloc == null) alloc = r.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (alloc != null) row[2] = alloc.getScore();
+        }
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-60s %12s %12s %12s%n", "Benchmark", "ops/s", "p99 (us)", "B/op");
+        rows.forEach((name, row) -> System.out.printf(Locale.ROOT, "%-60s %12.0f %12.1f %12.0f%n", name, row[0], row[1], row[2]));
+        System.out.println("Full results: target/jmh-result.json");
+    }
+}
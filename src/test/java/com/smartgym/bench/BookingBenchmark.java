@@ -0,0 +1,89 @@
+package com.smartgym.bench;
+
+import com.smartgym.service.SmartGymService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reservas: alta (cada operación toma un horario libre distinto, después de la agenda sembrada)
+ * y lectura de la agenda diaria de un entrenador. La variante de 8 hilos reserva todos sobre el
+ * mismo entrenador para medir la contención en su índice de horarios y en la restricción única;
+ * la de mismo horario hace competir a 8 intentos por cada minuto, como un pico sobre una clase.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class App {
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        ConfigurableApplicationContext ctx;
+        SmartGymService service;
+        final AtomicLong nextSlot = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void start() {
+            ctx = BenchApp.start("booking", size);
+            service = ctx.getBean(SmartGymService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() { ctx.close(); }
+
+        // Un minuto libre por operación: entrenador n % T, días posteriores a la agenda sembrada
+        void book(long n, int trainers) {
+            int trainer = (int) (n % trainers);
+            long perTrainer = n / trainers;
+            LocalDate day = LocalDate.now().plusDays(BenchApp.BOOKED_DAYS + 1 + perTrainer / 1440);
+            LocalTime time = LocalTime.of(0, 0).plusMinutes(perTrainer % 1440);
+            service.createBooking(BenchApp.member((int) (n % size)), BenchApp.trainer(trainer), day, time);
+        }
+    }
+
+    @Benchmark
+    public void createBooking(App app) {
+        app.book(app.nextSlot.getAndIncrement(), BenchApp.trainers(app.size));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void createBookingSameTrainer8Threads(App app) {
+        app.book(app.nextSlot.getAndIncrement(), 1);
+    }
+
+    // Cada 8 operaciones consecutivas piden el mismo horario: una gana, el resto es conflicto
+    @Benchmark
+    @Threads(8)
+    public boolean createBookingSameSlot8Threads(App app) {
+        try {
+            app.book(app.nextSlot.getAndIncrement() / 8, 1);
+            return true;
+        } catch (IllegalStateException conflict) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public Object listTrainerDay(App app) {
+        var rnd = ThreadLocalRandom.current();
+        return app.service.listTrainerBookings(BenchApp.trainer(rnd.nextInt(BenchApp.trainers(app.size))),
+                LocalDate.now().plusDays(1 + rnd.nextInt(BenchApp.BOOKED_DAYS)));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object listTrainerDay8Threads(App app) {
+        return listTrainerDay(app);
+    }
+}
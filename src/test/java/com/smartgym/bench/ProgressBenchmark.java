@@ -0,0 +1,78 @@
+package com.smartgym.bench;
+
+import com.smartgym.application.GymExtensions;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progreso: alta por DNI (insert + agregado con bloqueo de fila) y lectura del historial completo
+ * de un cliente con un año de registros semanales.
+ * <p>
+ * Solo se admite un registro por cliente y día, así que las altas rotan sobre los clientes
+ * sembrados y al empezar cada iteración se borran los registros de hoy. Con más altas por
+ * iteración que clientes, subir {@code size}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProgressBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class App {
+        @Param({"10000", "100000"})
+        int size;
+
+        ConfigurableApplicationContext ctx;
+        GymExtensions ext;
+        JdbcTemplate jdbc;
+        final AtomicInteger nextWriter = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void start() {
+            ctx = BenchApp.start("progress", size);
+            ext = ctx.getBean(GymExtensions.class);
+            jdbc = ctx.getBean(JdbcTemplate.class);
+        }
+
+        @Setup(Level.Iteration)
+        public void clearToday() {
+            jdbc.update("delete from progress_records where date = ?", Date.valueOf(LocalDate.now()));
+            nextWriter.set(0);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() { ctx.close(); }
+
+        String nextWriterDni() {
+            int n = nextWriter.getAndIncrement();
+            if (n >= size) throw new IllegalStateException("More progress writes per iteration than customers; raise size");
+            return BenchApp.dni(n);
+        }
+    }
+
+    @Benchmark
+    public Object addProgress(App app) {
+        return app.ext.addProgressByDni(app.nextWriterDni(), 80.0, 22.0, 38.0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object addProgress4Threads(App app) {
+        return addProgress(app);
+    }
+
+    @Benchmark
+    public Object progressHistory(App app) {
+        int customer = ThreadLocalRandom.current().nextInt(Math.min(app.size, BenchApp.PROGRESS_CUSTOMERS));
+        return app.ext.progressByDni(BenchApp.dni(customer));
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartgym.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencias y resultados de un endpoint durante la ventana medida de un escalón. Guarda todas las
+ * muestras (a unos cientos de peticiones por segundo son pocas decenas de miles) para calcular
+ * percentiles exactos.
+ */
+final class LatencySamples {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private long ok;
+    private long rejected;
+    private long errors;
+    private long dropped;
+    private final Map<String, Long> statuses = new TreeMap<>();
+
+    /** Respuesta recibida (o fallo de transporte con {@code status} "timeout" / "io"). */
+    synchronized void record(String status, Outcome outcome, long latencyNanos) {
+        if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+        nanos[count++] = latencyNanos;
+        statuses.merge(status, 1L, Long::sum);
+        switch (outcome) {
+            case OK -> ok++;
+            case REJECTED -> rejected++;
+            case ERROR -> errors++;
+        }
+    }
+
+    /** Llegada descartada porque el cliente ya tenía {@code max-in-flight} peticiones abiertas. */
+    synchronized void drop() {
+        dropped++;
+    }
+
+    synchronized LoadReport.EndpointReport report() {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        double mean = count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1e6;
+        return new LoadReport.EndpointReport(count + dropped, ok, rejected, errors, dropped,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 99.9),
+                count == 0 ? 0 : sorted[count - 1] / 1e6, mean, new TreeMap<>(statuses));
+    }
+
+    // Nearest-rank, en milisegundos
+    static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    enum Outcome {
+        /** 2xx. */
+        OK,
+        /** 409 / 422: regla de negocio (horario ocupado, DNI desconocido...), la API respondió bien. */
+        REJECTED,
+        /** Resto de 4xx, 5xx (incluido 503 por contrapresión), timeouts y errores de red. */
+        ERROR;
+
+        static Outcome of(int status) {
+            if (status >= 200 && status < 300) return OK;
+            if (status == 409 || status == 422) return REJECTED;
+            return ERROR;
+        }
+    }
+}
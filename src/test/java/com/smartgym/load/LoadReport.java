@@ -0,0 +1,23 @@
+package com.smartgym.load;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una ejecución, serializado a {@code target/load-result.json}. Latencias en ms,
+ * medidas desde el instante en que la llegada estaba programada (no desde el envío real), para que
+ * la cola del propio generador cuente como espera.
+ */
+record LoadReport(String startedAt, String baseUrl, Map<String, Object> options,
+                  List<StepReport> steps, Double maxSustainableRps, Double saturationRps) {
+
+    /** Un escalón de la rampa a ritmo constante. */
+    record StepReport(double targetRps, double achievedRps, double measureSeconds,
+                      long requests, long ok, long rejected, long errors, long dropped, double errorRate,
+                      double p50Ms, double p99Ms, boolean saturated, List<String> reasons,
+                      Map<String, EndpointReport> endpoints) {}
+
+    record EndpointReport(long requests, long ok, long rejected, long errors, long dropped,
+                          double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs, double meanMs,
+                          Map<String, Long> statuses) {}
+}
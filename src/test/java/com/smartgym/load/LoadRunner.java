@@ -0,0 +1,240 @@
+package com.smartgym.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.smartgym.load.LatencySamples.Outcome;
+import com.smartgym.load.TrafficMix.Endpoint;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga HTTP en lazo abierto contra una instancia ya arrancada (ver
+ * {@code smartgym_loadtest.sh}). Las llegadas siguen un proceso de Poisson al ritmo de cada
+ * escalón de la rampa, independientemente de lo que tarde el servidor, y la latencia se mide desde
+ * el instante programado. Un escalón se considera saturado si algún endpoint supera el p99
+ * objetivo, si la tasa de error pasa del máximo, si el throughput conseguido queda por debajo del
+ * 90 % del objetivo o si el generador llega a su límite de peticiones en vuelo. El último escalón
+ * sano es la capacidad sostenible de la instancia.
+ * <p>
+ * Opciones {@code --clave=valor}: base-url, rates, step-seconds, warmup-seconds, mix, customers,
+ * trainers, seed, slo-p99-ms, max-error-rate, max-in-flight, timeout-ms, output,
+ * continue-after-saturation.
+ */
+public final class LoadRunner {
+
+    private LoadRunner() { }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        var population = new TrafficMix.Population(options.customers(), options.trainers());
+        if (options.seed()) new LoadSeeder(client, options.baseUrl(), population).seed();
+        var mix = new TrafficMix(options.baseUrl(), population, options.timeout(), TrafficMix.parseWeights(options.mix()));
+
+        String startedAt = Instant.now().toString();
+        List<LoadReport.StepReport> steps = new ArrayList<>();
+        Double sustainable = null;
+        Double saturation = null;
+        for (double rate : options.rates()) {
+            var step = runStep(client, mix, rate, options);
+            steps.add(step);
+            print(step);
+            if (step.saturated()) {
+                if (saturation == null) saturation = rate;
+                if (!options.continueAfterSaturation()) break;
+            } else if (saturation == null) {
+                sustainable = rate;
+            }
+        }
+
+        var report = new LoadReport(startedAt, options.baseUrl(), options.asMap(), steps, sustainable, saturation);
+        Path output = Path.of(options.output());
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+        new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), report);
+        System.out.println();
+        System.out.println("Max sustainable rate: " + (sustainable == null ? "none (first step saturated)" : fmt(sustainable) + " req/s")
+                + (saturation == null ? "; no saturation up to " + fmt(options.rates()[options.rates().length - 1]) + " req/s"
+                                      : "; saturated at " + fmt(saturation) + " req/s"));
+        System.out.println("Full results: " + output);
+    }
+
+    private static LoadReport.StepReport runStep(HttpClient client, TrafficMix mix, double rate, Options options)
+            throws InterruptedException {
+        Map<Endpoint, LatencySamples> samples = new EnumMap<>(Endpoint.class);
+        for (Endpoint e : mix.endpoints()) samples.put(e, new LatencySamples());
+        LatencySamples all = new LatencySamples();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        LongAdder completedInWindow = new LongAdder();
+
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long measureEnd = measureStart + TimeUnit.SECONDS.toNanos(options.stepSeconds());
+        double meanGapNanos = 1e9 / rate;
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        double next = start;
+        while (true) {
+            next += -Math.log(1 - rnd.nextDouble()) * meanGapNanos;
+            long intended = (long) next;
+            if (intended >= measureEnd) break;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+
+            Endpoint endpoint = mix.pick(rnd);
+            boolean measured = intended >= measureStart;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    samples.get(endpoint).drop();
+                    all.drop();
+                }
+                continue;
+            }
+            client.sendAsync(mix.request(endpoint, rnd), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        inFlight.release();
+                        if (done >= measureStart && done < measureEnd) completedInWindow.increment();
+                        if (!measured) return;
+                        String status;
+                        Outcome outcome;
+                        if (error == null) {
+                            status = String.valueOf(response.statusCode());
+                            outcome = Outcome.of(response.statusCode());
+                        } else {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                            status = cause instanceof HttpTimeoutException ? "timeout" : "io";
+                            outcome = Outcome.ERROR;
+                        }
+                        samples.get(endpoint).record(status, outcome, done - intended);
+                        all.record(status, outcome, done - intended);
+                    });
+        }
+        // Respuestas pendientes: como mucho el timeout de petición
+        if (inFlight.tryAcquire(options.maxInFlight(), options.timeout().toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+            inFlight.release(options.maxInFlight());
+        }
+
+        Map<String, LoadReport.EndpointReport> endpoints = new LinkedHashMap<>();
+        samples.forEach((e, s) -> endpoints.put(e.key(), s.report()));
+        var total = all.report();
+        double achieved = completedInWindow.sum() / (double) options.stepSeconds();
+        double errorRate = total.requests() == 0 ? 0 : (total.errors() + total.dropped()) / (double) total.requests();
+
+        List<String> reasons = new ArrayList<>();
+        endpoints.forEach((name, r) -> {
+            if (r.p99Ms() > options.sloP99Ms()) {
+                reasons.add("p99 of " + name + " " + fmt(r.p99Ms()) + " ms > " + fmt(options.sloP99Ms()) + " ms");
+            }
+        });
+        if (errorRate > options.maxErrorRate()) {
+            reasons.add(String.format(Locale.ROOT, "error rate %.2f%% > %.2f%%", errorRate * 100, options.maxErrorRate() * 100));
+        }
+        if (achieved < rate * 0.9) {
+            reasons.add("achieved " + fmt(achieved) + " req/s < 90% of target");
+        }
+        if (total.dropped() > 0) {
+            reasons.add(total.dropped() + " arrivals dropped at max-in-flight=" + options.maxInFlight());
+        }
+        return new LoadReport.StepReport(rate, achieved, options.stepSeconds(), total.requests(), total.ok(),
+                total.rejected(), total.errors(), total.dropped(), errorRate, total.p50Ms(), total.p99Ms(),
+                !reasons.isEmpty(), reasons, endpoints);
+    }
+
+    private static void print(LoadReport.StepReport step) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Target %s req/s -> achieved %s req/s, p50 %s ms, p99 %s ms, ok %d, rejected %d, errors %d, dropped %d%s%n",
+                fmt(step.targetRps()), fmt(step.achievedRps()), fmt(step.p50Ms()), fmt(step.p99Ms()),
+                step.ok(), step.rejected(), step.errors(), step.dropped(),
+                step.saturated() ? "  SATURATED: " + String.join("; ", step.reasons()) : "");
+        System.out.printf(Locale.ROOT, "  %-16s %8s %8s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "rejected", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        step.endpoints().forEach((name, r) -> System.out.printf(Locale.ROOT, "  %-16s %8d %8d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                name, r.requests(), r.rejected(), r.errors() + r.dropped(), r.p50Ms(), r.p90Ms(), r.p99Ms(), r.maxMs()));
+    }
+
+    private static String fmt(double value) {
+        return String.format(Locale.ROOT, value == Math.rint(value) ? "%.0f" : "%.1f", value);
+    }
+
+    record Options(String baseUrl, double[] rates, int stepSeconds, int warmupSeconds, String mix,
+                   int customers, int trainers, boolean seed, double sloP99Ms, double maxErrorRate,
+                   int maxInFlight, Duration timeout, String output, boolean continueAfterSaturation) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put("base-url", "http://localhost:8080");
+            values.put("rates", "25,50,100,200,400,800");
+            values.put("step-seconds", "30");
+            values.put("warmup-seconds", "5");
+            values.put("mix", TrafficMix.DEFAULT_MIX);
+            values.put("customers", "2000");
+            values.put("trainers", "50");
+            values.put("seed", "true");
+            values.put("slo-p99-ms", "250");
+            values.put("max-error-rate", "0.01");
+            values.put("max-in-flight", "1000");
+            values.put("timeout-ms", "10000");
+            values.put("output", "target/load-result.json");
+            values.put("continue-after-saturation", "false");
+            for (String arg : args) {
+                if (arg.isBlank()) continue;
+                if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+                String key = arg.substring(2, arg.indexOf('='));
+                if (!values.containsKey(key)) throw new IllegalArgumentException("Unknown option --" + key + "; known: " + values.keySet());
+                values.put(key, arg.substring(arg.indexOf('=') + 1));
+            }
+            double[] rates = Arrays.stream(values.get("rates").split(",")).map(String::trim)
+                    .mapToDouble(Double::parseDouble).toArray();
+            if (rates.length == 0 || Arrays.stream(rates).anyMatch(r -> r <= 0)) {
+                throw new IllegalArgumentException("rates must be positive");
+            }
+            return new Options(values.get("base-url").replaceAll("/+$", ""), rates,
+                    Integer.parseInt(values.get("step-seconds")), Integer.parseInt(values.get("warmup-seconds")),
+                    values.get("mix"), Integer.parseInt(values.get("customers")), Integer.parseInt(values.get("trainers")),
+                    Boolean.parseBoolean(values.get("seed")), Double.parseDouble(values.get("slo-p99-ms")),
+                    Double.parseDouble(values.get("max-error-rate")), Integer.parseInt(values.get("max-in-flight")),
+                    Duration.ofMillis(Long.parseLong(values.get("timeout-ms"))), values.get("output"),
+                    Boolean.parseBoolean(values.get("continue-after-saturation")));
+        }
+
+        Map<String, Object> asMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("rates", rates);
+            map.put("step_seconds", stepSeconds);
+            map.put("warmup_seconds", warmupSeconds);
+            map.put("mix", mix);
+            map.put("customers", customers);
+            map.put("trainers", trainers);
+            map.put("slo_p99_ms", sloP99Ms);
+            map.put("max_error_rate", maxErrorRate);
+            map.put("max_in_flight", maxInFlight);
+            map.put("timeout_ms", timeout.toMillis());
+            return map;
+        }
+    }
+}
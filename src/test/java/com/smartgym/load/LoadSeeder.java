@@ -0,0 +1,118 @@
+package com.smartgym.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Siembra por la propia API: clientes, entrenadores y DNI con la importación masiva, un registro
+ * de progreso por cliente y una rutina por cliente con el job de asignación masiva. Es
+ * idempotente: repetirlo contra la misma instancia solo actualiza filas (el progreso del día da 409).
+ */
+final class LoadSeeder {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final TrafficMix.Population population;
+
+    LoadSeeder(HttpClient client, String baseUrl, TrafficMix.Population population) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.population = population;
+    }
+
+    void seed() throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        importCsv("customers", "email,name,age", population.customers(),
+                i -> population.member(i) + ",Load Member " + i + "," + (18 + i % 50));
+        importCsv("trainers", "email,name,age,specialty", population.trainers(),
+                i -> population.trainer(i) + ",Load Coach " + i + ",35,Strength");
+        importCsv("identities", "dni,email", population.customers(),
+                i -> population.dni(i) + "," + population.member(i));
+        seedProgress();
+        seedRoutines();
+        System.out.printf("Seeded %d customers and %d trainers in %.1f s%n",
+                population.customers(), population.trainers(), (System.nanoTime() - started) / 1e9);
+    }
+
+    private void importCsv(String kind, String header, int rows, IntFunction<String> row)
+            throws IOException, InterruptedException {
+        StringBuilder csv = new StringBuilder(header).append('\n');
+        for (int i = 0; i < rows; i++) csv.append(row.apply(i)).append('\n');
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/import/" + kind))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString())).build();
+        JsonNode report = data(send(request, 200));
+        if (report.path("rejected").asLong() > 0) {
+            throw new IllegalStateException("Seed import of " + kind + " rejected rows: " + report.path("errors"));
+        }
+    }
+
+    // Un registro de hoy por cliente, con 32 peticiones en vuelo
+    private void seedProgress() throws InterruptedException {
+        Semaphore inFlight = new Semaphore(32);
+        AtomicLong failures = new AtomicLong();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (int i = 0; i < population.customers(); i++) {
+            String body = String.format(java.util.Locale.ROOT,
+                    "{\"dni\":\"%s\",\"weightKg\":%.1f,\"bodyFatPct\":%.1f,\"musclePct\":%.1f}",
+                    population.dni(i), 60.0 + i % 40, 15.0 + i % 15, 30.0 + i % 10);
+            var request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/progress"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            inFlight.acquire();
+            pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (error != null || (response.statusCode() != 201 && response.statusCode() != 409)) {
+                            failures.incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        if (failures.get() > 0) throw new IllegalStateException(failures.get() + " progress seed requests failed");
+    }
+
+    private void seedRoutines() throws IOException, InterruptedException {
+        var start = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/routines/assign-jobs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{}")).build();
+        long id = data(send(start, 202)).path("id").asLong();
+        var poll = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/routines/assign-jobs/" + id)).GET().build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            String status = data(send(poll, 200)).path("status").asText();
+            if ("COMPLETED".equals(status)) return;
+            if (!"RUNNING".equals(status)) throw new IllegalStateException("Routine assignment job ended as " + status);
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Routine assignment job " + id + " did not finish in 10 minutes");
+    }
+
+    private JsonNode send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " -> "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private static JsonNode data(JsonNode body) {
+        return body.path("data");
+    }
+}
@@ -0,0 +1,126 @@
+package com.smartgym.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tráfico mixto de una sede: torniquete, reservas para hoy, lecturas de progreso y de rutinas,
+ * con pesos relativos configurables ({@code --mix=access=48,booking=15,...}).
+ */
+final class TrafficMix {
+
+    static final String DEFAULT_MIX = "access=48,access_unknown=2,booking=15,progress=20,routine_active=10,routine_history=5";
+
+    enum Endpoint {
+        /** POST /access con un DNI vinculado. */
+        ACCESS,
+        /** POST /access con un DNI sin vincular (tarjeta ajena): se espera 422. */
+        ACCESS_UNKNOWN,
+        /** POST /bookings para hoy en un minuto libre al azar; los horarios ocupados dan 409. */
+        BOOKING,
+        /** GET /progress/{dni}. */
+        PROGRESS,
+        /** GET /routines/active/{dni}?day=hoy. */
+        ROUTINE_ACTIVE,
+        /** GET /routines/history/{dni}. */
+        ROUTINE_HISTORY;
+
+        String key() { return name().toLowerCase(Locale.ROOT); }
+
+        static Endpoint parse(String key) {
+            return valueOf(key.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final String baseUrl;
+    private final Population population;
+    private final Duration timeout;
+    private final Endpoint[] endpoints;
+    private final double[] cumulative;
+
+    TrafficMix(String baseUrl, Population population, Duration timeout, Map<Endpoint, Double> weights) {
+        this.baseUrl = baseUrl;
+        this.population = population;
+        this.timeout = timeout;
+        var active = weights.entrySet().stream().filter(e -> e.getValue() > 0).toList();
+        if (active.isEmpty()) throw new IllegalArgumentException("Traffic mix has no positive weight");
+        double total = active.stream().mapToDouble(Map.Entry::getValue).sum();
+        endpoints = new Endpoint[active.size()];
+        cumulative = new double[active.size()];
+        double acc = 0;
+        for (int i = 0; i < active.size(); i++) {
+            endpoints[i] = active.get(i).getKey();
+            acc += active.get(i).getValue() / total;
+            cumulative[i] = acc;
+        }
+    }
+
+    static Map<Endpoint, Double> parseWeights(String spec) {
+        Map<Endpoint, Double> weights = new EnumMap<>(Endpoint.class);
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) continue;
+            String[] kv = part.split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Invalid mix entry: " + part);
+            weights.put(Endpoint.parse(kv[0]), Double.parseDouble(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    Endpoint[] endpoints() { return endpoints.clone(); }
+
+    Endpoint pick(ThreadLocalRandom rnd) {
+        double u = rnd.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (u < cumulative[i]) return endpoints[i];
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    HttpRequest request(Endpoint endpoint, ThreadLocalRandom rnd) {
+        int member = rnd.nextInt(population.customers());
+        return switch (endpoint) {
+            case ACCESS -> post("/api/v1/access", "{\"dni\":\"" + population.dni(member) + "\"}");
+            case ACCESS_UNKNOWN -> post("/api/v1/access", "{\"dni\":\"" + population.unknownDni(rnd) + "\"}");
+            case BOOKING -> post("/api/v1/bookings", "{\"customer_email\":\"" + population.member(member)
+                    + "\",\"trainer_email\":\"" + population.trainer(rnd.nextInt(population.trainers()))
+                    + "\",\"time\":\"" + freeMinuteToday(rnd) + "\"}");
+            case PROGRESS -> get("/api/v1/progress/" + population.dni(member));
+            case ROUTINE_ACTIVE -> get("/api/v1/routines/active/" + population.dni(member)
+                    + "?day=" + LocalDate.now().getDayOfWeek().name().toLowerCase(Locale.ROOT));
+            case ROUTINE_HISTORY -> get("/api/v1/routines/history/" + population.dni(member) + "?limit=10");
+        };
+    }
+
+    // Minuto al azar entre ahora + 2 y las 23:59; a última hora del día las reservas darán 422
+    private static String freeMinuteToday(ThreadLocalRandom rnd) {
+        int from = LocalTime.now().toSecondOfDay() / 60 + 2;
+        int minute = from >= 1439 ? 1439 : rnd.nextInt(from, 1440);
+        return String.format(Locale.ROOT, "%02d:%02d", minute / 60, minute % 60);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    /** Clientes, DNI y entrenadores sembrados por {@link LoadSeeder}. */
+    record Population(int customers, int trainers) {
+        String member(int i) { return "load-" + i + "@load.local"; }
+        String dni(int i) { return String.valueOf(70_000_000 + i); }
+        String trainer(int i) { return "load-coach-" + i + "@load.local"; }
+        // Rango que ninguna siembra usa
+        String unknownDni(ThreadLocalRandom rnd) { return String.valueOf(60_000_000 + rnd.nextInt(10_000_000)); }
+    }
+}
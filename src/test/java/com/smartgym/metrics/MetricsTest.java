@@ -0,0 +1,89 @@
+package com.smartgym.metrics;
+
+import com.smartgym.model.Customer;
+import com.smartgym.model.Trainer;
+import com.smartgym.service.SmartGymService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTest {
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void serviceCallsAreTimedAndSlotConflictsCounted() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String customer = "metrics-" + run + "@example.com";
+        String trainer = "coach-" + run + "@smartgym.com";
+        service.addCustomer(new Customer(customer, "Metrics", 30));
+        service.addTrainer(new Trainer(trainer, "Coach", 40, "Strength"));
+        LocalDate day = LocalDate.now().plusDays(3);
+        double before = conflicts("slot_index");
+
+        service.createBooking(customer, trainer, day, LocalTime.of(9, 0));
+        assertThrows(IllegalStateException.class, () -> service.createBooking(customer, trainer, day, LocalTime.of(9, 0)));
+
+        assertEquals(before + 1, conflicts("slot_index"));
+        var ok = registry.get(ServiceTimingAspect.METRIC)
+                .tags("class", "SmartGymService", "method", "createBooking", "exception", "none").timer();
+        var failed = registry.get(ServiceTimingAspect.METRIC)
+                .tags("class", "SmartGymService", "method", "createBooking", "exception", "IllegalStateException").timer();
+        assertTrue(ok.count() >= 1);
+        assertTrue(failed.count() >= 1);
+    }
+
+    @Test
+    void prometheusScrapeExposesRoutesStatementsPoolAndCaches() throws Exception {
+        String email = "scrape-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        service.addCustomer(new Customer(email, "Scrape", 30));
+        mvc.perform(get("/api/v1/customers/" + email)).andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/api/v1/customers/{email}\"")))
+                .andExpect(content().string(containsString("smartgym_sql_statements_count{method=\"GET\",uri=\"/api/v1/customers/{email}\"}")))
+                .andExpect(content().string(containsString("smartgym_service_calls_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending")))
+                .andExpect(content().string(containsString("smartgym_cache_gets_total{cache=\"entity-customers\"")))
+                .andExpect(content().string(containsString("smartgym_bookings_conflicts_total{source=\"unique_constraint\"}")));
+
+        mvc.perform(get("/api/v1/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.metrics.connectionPool.max").isNumber())
+                .andExpect(jsonPath("$.data.metrics.sqlStatementsPerRequest.requests").isNumber())
+                .andExpect(jsonPath("$.data.metrics.slowestRoutes[0].p99Ms").isNumber());
+    }
+
+    private double conflicts(String source) {
+        return registry.get(BookingMetrics.CONFLICTS).tag("source", source).counter().count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.smartgym.metrics;
+
+import com.smartgym.api.common.RequestIdFilter;
+import com.smartgym.application.GymExtensions;
+import com.smartgym.model.Customer;
+import com.smartgym.service.SmartGymService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "smartgym.sql-trace.slow-request-ms=0",
+        "smartgym.sql-trace.statement-budgets[0]=GET /api/v1/progress/{dni}=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlTraceTest {
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private RequestIdFilter requestIdFilter;
+
+    @Autowired
+    private SlowRequestLog slowRequests;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void requestBreakdownIsQueryableByRequestId() throws Exception {
+        String email = "trace-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        service.addCustomer(new Customer(email, "Trace", 30));
+
+        String requestId = mvc.perform(get("/api/v1/customers/" + email + "/history"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("X-Request-Id");
+        assertNotNull(requestId);
+
+        mvc.perform(get("/api/v1/admin/slow-requests/" + requestId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.route").value("GET /api/v1/customers/{email}/history"))
+                .andExpect(jsonPath("$.data.statements").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.data.slowest_statement").value(containsString("booking_history_entries")))
+                .andExpect(jsonPath("$.data.budget_exceeded").value(false));
+        mvc.perform(get("/api/v1/admin/slow-requests?limit=500")).andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void statementBudgetFailsTheRequestInTests() {
+        String dni = String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 99_999_999));
+        String email = "budget-" + dni + "@example.com";
+        service.addCustomer(new Customer(email, "Budget", 30));
+        ext.registerCustomerIdentity(dni, email);
+        ext.addProgressByDni(dni, 80.0, 20.0, 35.0);
+
+        // Resumen + últimos registros = 2 sentencias con presupuesto 1
+        var ex = assertThrows(SlowRequestLog.SqlBudgetExceededException.class,
+                () -> mvc.perform(get("/api/v1/progress/" + dni)));
+        assertTrue(ex.getMessage().contains("GET /api/v1/progress/{dni}"));
+        assertTrue(ex.getMessage().contains("(budget 1)"));
+    }
+
+    @Test
+    void requestThatThrowsIsStillRecorded() {
+        var request = new MockHttpServletRequest("GET", "/api/v1/boom");
+        var response = new MockHttpServletResponse();
+
+        var ex = assertThrows(IllegalStateException.class, () -> requestIdFilter.doFilter(request, response, (req, res) -> {
+            jdbcTemplate.queryForObject("select count(*) from customers", Integer.class);
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("boom", ex.getMessage()); // no la tapa el presupuesto ni el registro
+
+        var entry = slowRequests.find(response.getHeader("X-Request-Id")).orElseThrow();
+        assertEquals(500, entry.status());
+        assertEquals(1, entry.statements());
+        assertNull(SqlTrace.current());
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartgym.service;
+
+import com.smartgym.model.Booking;
+import com.smartgym.model.Customer;
+import com.smartgym.model.Trainer;
+import com.smartgym.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingBatchTest {
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void recurringBookingReportsPerSlotOutcome() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String customer = "batch-" + run + "@example.com";
+        String trainer = "coach-" + run + "@smartgym.com";
+        service.addCustomer(new Customer(customer, "Batch", 30));
+        service.addTrainer(new Trainer(trainer, "Coach", 40, "Strength"));
+
+        LocalDate start = LocalDate.now().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        LocalDate end = start.plusWeeks(13).minusDays(1);
+        LocalTime time = LocalTime.of(18, 0);
+        LocalDate firstTuesday = start.plusDays(1);
+        service.createBooking(customer, trainer, firstTuesday, time);
+
+        List<BookingSlotOutcome> outcomes = service.createRecurringBookings(customer, trainer, start, end,
+                EnumSet.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY), time, "Quarter plan");
+
+        assertEquals(26, outcomes.size());
+        assertEquals(BookingSlotOutcome.Status.CONFLICT, outcomes.get(0).status());
+        assertEquals(firstTuesday, outcomes.get(0).date());
+        assertEquals(25, outcomes.stream().filter(o -> o.status() == BookingSlotOutcome.Status.CREATED).count());
+        List<Long> ids = outcomes.stream().skip(1).map(BookingSlotOutcome::bookingId).toList();
+        ids.forEach(id -> assertTrue(id != null && id > 0, "booking id " + id));
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+
+        Booking stored = bookingRepository.findById(outcomes.get(1).bookingId()).orElseThrow();
+        assertEquals(outcomes.get(1).date(), stored.getSchedule().getDate());
+        assertEquals("Quarter plan", stored.getNote());
+
+        // Los horarios recién insertados quedan reservados en el índice
+        assertThrows(IllegalStateException.class,
+                () -> service.createBooking(customer, trainer, outcomes.get(1).date(), time));
+        // 1 reserva individual + 25 del lote, más reciente primero
+        var history = service.getCustomerHistory(customer, null, 100);
+        assertEquals(26, history.size());
+        assertTrue(history.get(0).getNote().contains(outcomes.get(25).date().toString()));
+        assertEquals(10, service.getCustomerHistory(customer, history.get(9).getId(), 10).size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.smartgym.service;
+
+import com.smartgym.model.Customer;
+import com.smartgym.model.Trainer;
+import com.smartgym.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    private static final int ATTEMPTS_PER_SLOT = 16;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSlotIndex slotIndex;
+
+    @Test
+    void sameSlotAdmitsExactlyOneBookingPerTrainer() throws Exception {
+        for (int trainers : new int[] {1, 4, 8}) {
+            runRace(trainers);
+        }
+    }
+
+    @Test
+    void unknownTrainerLeavesNothingInTheIndex() {
+        String customer = "member-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        service.addCustomer(new Customer(customer, "Member", 25));
+        int days = slotIndex.trainerDays();
+
+        assertThrows(IllegalArgumentException.class, () -> service.createBooking(customer,
+                "ghost-" + UUID.randomUUID() + "@smartgym.com", LocalDate.now().plusDays(1), LocalTime.of(8, 0)));
+        assertEquals(days, slotIndex.trainerDays());
+    }
+
+    private void runRace(int trainers) throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime time = LocalTime.of(8, 0);
+
+        List<String> trainerEmails = new ArrayList<>();
+        for (int t = 0; t < trainers; t++) {
+            String email = "coach" + t + "-" + run + "@smartgym.com";
+            service.addTrainer(new Trainer(email, "Coach " + t, 30, "Strength"));
+            trainerEmails.add(email);
+        }
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (String trainer : trainerEmails) {
+            for (int a = 0; a < ATTEMPTS_PER_SLOT; a++) {
+                String customer = "member" + a + "-" + trainer;
+                service.addCustomer(new Customer(customer, "Member " + a, 25));
+                attempts.add(() -> {
+                    try {
+                        service.createBooking(customer, trainer, date, time);
+                        return true;
+                    } catch (IllegalStateException conflict) {
+                        return false;
+                    }
+                });
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(attempts.size(), 32));
+        AtomicInteger created = new AtomicInteger();
+        try {
+            for (Future<Boolean> f : pool.invokeAll(attempts)) {
+                if (f.get(30, TimeUnit.SECONDS)) created.incrementAndGet();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(trainers, created.get(), "one booking per trainer and slot");
+        for (String trainer : trainerEmails) {
+            assertEquals(1, bookingRepository.findByTrainer_EmailAndSchedule_Date(trainer, date).size());
+        }
+    }
+}
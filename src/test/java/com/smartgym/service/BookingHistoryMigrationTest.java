@@ -0,0 +1,53 @@
+package com.smartgym.service;
+
+import com.smartgym.domain.BookingHistoryEntry;
+import com.smartgym.repository.BookingHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingHistoryMigrationTest {
+
+    @Autowired
+    private BookingHistoryMigration migration;
+
+    @Autowired
+    private BookingHistoryRepository historyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void dropLegacyTable() {
+        jdbcTemplate.execute("drop table if exists customer_booking_history");
+        jdbcTemplate.update("delete from data_migrations where name = ?", BookingHistoryMigration.MIGRATION);
+    }
+
+    @Test
+    void copiesLegacyHistoryInOrderOnceEvenIfNewEntriesExist() {
+        String email = "legacy-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        jdbcTemplate.execute("create table customer_booking_history (customer_email varchar(180), note varchar(255))");
+        for (String note : List.of("first", "second", "third")) {
+            jdbcTemplate.update("insert into customer_booking_history values (?, ?)", email, note);
+        }
+        // Una reserva escrita antes de la migración no debe impedir la copia
+        historyRepository.save(new BookingHistoryEntry("other-" + email, "new booking"));
+
+        migration.migrateLegacyHistory();
+        migration.migrateLegacyHistory();
+
+        List<String> notes = jdbcTemplate.queryForList(
+                "select note from booking_history_entries where customer_email = ? order by id", String.class, email);
+        assertEquals(List.of("first", "second", "third"), notes);
+    }
+}
@@ -0,0 +1,93 @@
+package com.smartgym.service;
+
+import com.smartgym.model.Customer;
+import com.smartgym.model.Trainer;
+import com.smartgym.repository.BookingView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fija el número de sentencias SQL de los listados de reservas (sin N+1 sobre asociaciones LAZY).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingReadPathTest {
+
+    private static final int BOOKINGS = 12;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics stats;
+    private String trainer;
+    private LocalDate date;
+
+    @BeforeEach
+    void seed() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        trainer = "coach-" + run + "@smartgym.com";
+        date = LocalDate.now().plusDays(3);
+        service.addTrainer(new Trainer(trainer, "Coach", 40, "Strength"));
+        for (int i = 0; i < BOOKINGS; i++) {
+            String customer = "member" + i + "-" + run + "@example.com";
+            service.addCustomer(new Customer(customer, "Member " + i, 30));
+            service.createBooking(customer, trainer, date, LocalTime.of(20, 0).minusHours(i));
+        }
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void pageIsOneStatement() {
+        List<BookingView> page = service.listBookings(0, 1000);
+        assertTrue(page.size() >= BOOKINGS);
+        page.forEach(v -> assertNotNull(v.customerEmail()));
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    void trainerDayIsOneStatement() {
+        List<BookingView> day = service.listTrainerBookings(trainer, date);
+        assertEquals(BOOKINGS, day.size());
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(LocalTime.of(9, 0), day.get(0).time());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    void trainerWeekIsOneOrderedStatement() {
+        List<BookingView> week = service.listTrainerWeek(trainer, date);
+        assertEquals(BOOKINGS, week.size());
+        assertEquals(1, stats.getPrepareStatementCount());
+        for (int i = 1; i < week.size(); i++) {
+            assertTrue(week.get(i - 1).time().isBefore(week.get(i).time()));
+        }
+    }
+
+    @Test
+    void streamIsOneStatement() {
+        List<BookingView> all = new ArrayList<>();
+        service.streamBookings(all::add);
+        assertTrue(all.size() >= BOOKINGS);
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+}
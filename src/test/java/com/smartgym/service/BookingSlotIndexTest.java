@@ -0,0 +1,59 @@
+package com.smartgym.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingSlotIndexTest {
+
+    private final BookingSlotIndex index = new BookingSlotIndex(null);
+    private final LocalDate day = LocalDate.of(2030, 1, 15);
+
+    @Test
+    void markAndReleaseSlot() {
+        LocalTime nine = LocalTime.of(9, 0);
+        assertFalse(index.isTaken("mike@smartgym.com", day, nine));
+
+        index.mark("mike@smartgym.com", day, nine);
+        assertTrue(index.isTaken("mike@smartgym.com", day, nine));
+        assertFalse(index.isTaken("mike@smartgym.com", day, LocalTime.of(9, 1)));
+        assertFalse(index.isTaken("anna@smartgym.com", day, nine));
+        assertFalse(index.isTaken("mike@smartgym.com", day.plusDays(1), nine));
+
+        index.release("mike@smartgym.com", day, nine);
+        assertFalse(index.isTaken("mike@smartgym.com", day, nine));
+    }
+
+    @Test
+    void coversWholeDay() {
+        LocalTime first = LocalTime.MIDNIGHT;
+        LocalTime last = LocalTime.of(23, 59);
+        index.mark("mike@smartgym.com", day, first);
+        index.mark("mike@smartgym.com", day, last);
+        assertTrue(index.isTaken("mike@smartgym.com", day, first));
+        assertTrue(index.isTaken("mike@smartgym.com", day, last));
+        assertFalse(index.isTaken("mike@smartgym.com", day, LocalTime.of(12, 0)));
+    }
+
+    @Test
+    void timesWithSecondsAreLeftToTheDatabase() {
+        LocalTime withSeconds = LocalTime.of(9, 0, 30);
+        index.mark("mike@smartgym.com", day, withSeconds);
+        assertFalse(index.isTaken("mike@smartgym.com", day, withSeconds));
+        assertFalse(index.isTaken("mike@smartgym.com", day, LocalTime.of(9, 0)));
+    }
+
+    @Test
+    void pastDaysArePruned() {
+        index.mark("mike@smartgym.com", day.minusDays(1), LocalTime.of(9, 0));
+        index.mark("mike@smartgym.com", day, LocalTime.of(9, 0));
+
+        index.pruneBefore(day);
+
+        assertEquals(1, index.trainerDays());
+        assertTrue(index.isTaken("mike@smartgym.com", day, LocalTime.of(9, 0)));
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartgym.service;
+
+import com.smartgym.application.BulkImporter;
+import com.smartgym.application.GymExtensions;
+import com.smartgym.domain.PaymentMethod;
+import com.smartgym.model.Customer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheTest {
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private BulkImporter importer;
+
+    @Autowired
+    private EntityCacheStats cacheStats;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void repeatedLookupsAreServedFromTheCacheAndSeeUpdates() {
+        String email = "cache-" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        service.addCustomer(new Customer(email, "Cached", 30));
+        service.findCustomer(email); // calienta la región si el alta no lo hizo
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        long hitsBefore = cacheStats.snapshot().get("customers").hits();
+        stats.clear();
+        for (int i = 0; i < 5; i++) assertEquals("Cached", service.findCustomer(email).orElseThrow().getName());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(5, cacheStats.snapshot().get("customers").hits() - hitsBefore);
+
+        // Actualización por JPA: la región se actualiza al confirmar
+        ext.setPayment(email, new PaymentMethod("4111111111111111"));
+        stats.clear();
+        assertEquals("1111", ext.getPayment(email).orElseThrow().getCardNumber());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        // Escritura por JDBC: el importador desaloja y la siguiente lectura va a la base
+        importer.importFrom(BulkImporter.Kind.CUSTOMERS, BulkImporter.Format.CSV,
+                new StringReader("email,name,age\n" + email + ",Renamed,31\n"));
+        stats.clear();
+        assertEquals("Renamed", service.findCustomer(email).orElseThrow().getName());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,99 @@
+package com.smartgym.service;
+
+import com.smartgym.application.BulkImporter;
+import com.smartgym.application.GymExtensions;
+import com.smartgym.model.Customer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class KnownIdentityFilterTest {
+
+    @Autowired
+    private GymExtensions ext;
+
+    @Autowired
+    private SmartGymService service;
+
+    @Autowired
+    private BulkImporter importer;
+
+    @Autowired
+    private KnownIdentityFilter filter;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void unknownDniAndEmailAreAnsweredWithoutQueries() {
+        assertTrue(filter.ready());
+        String p = "bloom" + ThreadLocalRandom.current().nextInt(1_000_000);
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        long misses = filter.definiteMisses();
+
+        stats.clear();
+        for (int i = 0; i < 20; i++) {
+            var e = assertThrows(IllegalArgumentException.class, () -> ext.accessByDni(p + "-card"));
+            assertEquals("DNI not linked", e.getMessage());
+        }
+        assertTrue(ext.emailByDni(p + "-typo").isEmpty());
+        assertTrue(service.findCustomer(p + "@nowhere.com").isEmpty());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(filter.definiteMisses() - misses >= 22);
+    }
+
+    @Test
+    void newKeysAreVisibleImmediately() {
+        String p = "bloomnew" + ThreadLocalRandom.current().nextInt(1_000_000);
+        String dni = String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 90_000_000));
+        assertTrue(ext.emailByDni(dni).isEmpty());
+
+        service.addCustomer(new Customer(p + "@example.com", "Bloom", 30));
+        ext.registerCustomerIdentity(dni, p + "@example.com");
+        assertTrue(ext.accessByDni(dni).startsWith("Welcome Bloom!"));
+
+        String importedDni = String.valueOf(Integer.parseInt(dni) + 1);
+        var report = importer.importFrom(BulkImporter.Kind.IDENTITIES, BulkImporter.Format.NDJSON,
+                new StringReader("{\"dni\":\"" + importedDni + "\",\"email\":\"" + p + "@example.com\"}\n"));
+        assertEquals(1, report.imported());
+        assertEquals(p + "@example.com", ext.emailByDni(importedDni).orElseThrow());
+    }
+
+    @Test
+    void rowWrittenOutsideTheAppIsNotOverwrittenByAnAdd() {
+        String email = "console" + ThreadLocalRandom.current().nextInt(1_000_000) + "@example.com";
+        // Como desde la consola H2: la fila existe pero el filtro no la conoce
+        jdbcTemplate.update("insert into customers (email, name, age) values (?, 'Console', 40)", email);
+
+        assertThrows(IllegalStateException.class, () -> service.addCustomer(new Customer(email, "Api", 20)));
+        assertEquals("Console", jdbcTemplate.queryForObject(
+                "select name from customers where email = ?", String.class, email));
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) bloom.put("member-" + i + "@example.com");
+        for (int i = 0; i < 10_000; i++) assertTrue(bloom.mightContain("member-" + i + "@example.com"));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) if (bloom.mightContain("stranger-" + i + "@example.com")) falsePositives++;
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives); // ~1 % esperado
+        assertTrue(bloom.estimatedFpp() < 0.02);
+    }
+}